@@ -1,5 +1,7 @@
 package org.identityservice;
 
+import java.util.Map;
+
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
@@ -11,6 +13,14 @@ import org.springframework.cloud.openfeign.EnableFeignClients;
 public class IdentityServiceApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(IdentityServiceApplication.class, args);
+        SpringApplication application = new SpringApplication(IdentityServiceApplication.class);
+        // application.yaml không nằm trong repo; default properties có độ ưu tiên thấp nhất nên yaml/env vẫn ghi đè được
+        application.setDefaultProperties(Map.of(
+                // Tomcat, @Async và scheduler chạy trên virtual thread
+                "spring.threads.virtual.enabled", "true",
+                // /actuator/health công khai chỉ trả status; chi tiết (connectionPool, db, redis) cho admin
+                "management.endpoint.health.show-details", "when-authorized",
+                "management.endpoint.health.roles", "ROLE_ADMIN"));
+        application.run(args);
     }
 }
@@ -4,28 +4,28 @@ import java.text.ParseException;
 
 import org.identityservice.exception.AppException;
 import org.identityservice.exception.ErrorCode;
-import org.springframework.beans.factory.annotation.Value;
+import org.identityservice.service.VerifiedTokenCache;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtException;
 import org.springframework.stereotype.Component;
 
 import com.nimbusds.jose.JOSEException;
-import com.nimbusds.jose.crypto.MACVerifier;
 import com.nimbusds.jwt.SignedJWT;
 
+import lombok.RequiredArgsConstructor;
+
 @Component
+@RequiredArgsConstructor
 public class CustomJwtDecoder implements JwtDecoder {
-
-    @Value("${jwt.signerKey}")
-    public String SECRET;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     @Override
     public Jwt decode(String token) throws JwtException {
         // giai ma token de lay thong tin
         try {
-            SignedJWT signedJWT = SignedJWT.parse(token);
-            if (!signedJWT.verify(new MACVerifier(SECRET))) {
+            SignedJWT signedJWT = verifiedTokenCache.parseVerified(token);
+            if (signedJWT == null) {
                 throw new AppException(ErrorCode.INVALID_SECRET_KEY);
             }
             return new Jwt(
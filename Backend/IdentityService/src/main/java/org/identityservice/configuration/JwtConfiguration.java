@@ -0,0 +1,20 @@
+package org.identityservice.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.MACVerifier;
+
+// Token mới ký RS256 bằng SigningKeyService; MACVerifier chỉ còn để nhận token HS512 phát hành trước đó
+// (vẫn refresh được sang token RS256) cho tới khi chúng hết hạn refresh
+@Configuration
+public class JwtConfiguration {
+
+    @Bean
+    JWSVerifier jwsVerifier(@Value("${jwt.signerKey}") String signerKey) throws JOSEException {
+        return new MACVerifier(signerKey.getBytes());
+    }
+}
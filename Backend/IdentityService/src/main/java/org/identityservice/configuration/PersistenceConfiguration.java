@@ -0,0 +1,69 @@
+package org.identityservice.configuration;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Cấu hình truy cập MySQL đặt trong code vì application.yaml của identity-service không nằm trong repo.
+ * Giá trị đọc theo đúng key của Spring Boot (spring.datasource.hikari.*, spring.jpa.properties.hibernate.*)
+ * nên khai báo trong yaml/env vẫn được ưu tiên.
+ *
+ * Request chạy trên virtual thread (spring.threads.virtual.enabled, đặt mặc định trong IdentityServiceApplication),
+ * số request đồng thời chạm DB do chính Hikari pool giới hạn: request vượt quá pool chờ tối đa
+ * connection-timeout rồi lỗi thay vì giữ thread Tomcat.
+ */
+@Configuration
+public class PersistenceConfiguration {
+
+    // Batch insert/update của Hibernate (User dùng UUID nên không bị IDENTITY chặn batch);
+    // default_batch_fetch_size để roles/permissions của cả một trang user được load bằng vài câu IN thay vì N+1
+    @Bean
+    HibernatePropertiesCustomizer jdbcBatchingCustomizer(
+            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        return properties -> {
+            properties.putIfAbsent("hibernate.jdbc.batch_size", batchSize);
+            properties.putIfAbsent("hibernate.order_inserts", true);
+            properties.putIfAbsent("hibernate.order_updates", true);
+            properties.putIfAbsent("hibernate.jdbc.batch_versioned_data", true);
+            properties.putIfAbsent("hibernate.default_batch_fetch_size", 100);
+        };
+    }
+
+    @Bean
+    static BeanPostProcessor hikariPoolCustomizer(
+            @Value("${spring.datasource.hikari.maximum-pool-size:20}") int maximumPoolSize,
+            @Value("${spring.datasource.hikari.minimum-idle:5}") int minimumIdle,
+            @Value("${spring.datasource.hikari.connection-timeout:3000}") long connectionTimeoutMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    dataSource.setPoolName("identity-pool");
+                    dataSource.setMaximumPoolSize(maximumPoolSize);
+                    dataSource.setMinimumIdle(minimumIdle);
+                    dataSource.setConnectionTimeout(connectionTimeoutMs);
+                    // Cache PreparedStatement phía driver + gộp batch thành một câu INSERT nhiều dòng
+                    Map.of(
+                                    "cachePrepStmts", "true",
+                                    "prepStmtCacheSize", "250",
+                                    "prepStmtCacheSqlLimit", "2048",
+                                    "useServerPrepStmts", "true",
+                                    "rewriteBatchedStatements", "true")
+                            .forEach((key, value) -> {
+                                if (!dataSource.getDataSourceProperties().containsKey(key)) {
+                                    dataSource.addDataSourceProperty(key, value);
+                                }
+                            });
+                }
+                return bean;
+            }
+        };
+    }
+}
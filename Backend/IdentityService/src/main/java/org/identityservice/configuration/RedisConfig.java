@@ -88,7 +88,7 @@ public class RedisConfig {
 
         return RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultConfig)
-                .withCacheConfiguration("users", defaultConfig.entryTtl(Duration.ofMinutes(30)))
+                .withCacheConfiguration("userPages", defaultConfig.entryTtl(Duration.ofMinutes(1)))
                 .withCacheConfiguration("userById", defaultConfig.entryTtl(Duration.ofMinutes(15)))
                 .withCacheConfiguration("myInfo", defaultConfig.entryTtl(Duration.ofMinutes(10)))
                 .transactionAware()
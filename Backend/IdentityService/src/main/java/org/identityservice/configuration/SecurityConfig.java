@@ -1,5 +1,6 @@
 package org.identityservice.configuration;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -19,9 +20,9 @@ import org.springframework.security.web.SecurityFilterChain;
 public class SecurityConfig {
     private static final String[] PUBLIC_ENDPOINTS = {
         "/users/registration",
-        "/users/registrations",
         "/auth/token",
         "/auth/introspect",
+        "/auth/introspect/batch",
         "/auth/logout",
         "/auth/refresh",
         "/auth/outbound/authentication",
@@ -38,6 +39,11 @@ public class SecurityConfig {
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity httpSecurity) throws Exception {
         httpSecurity.authorizeHttpRequests(request -> request.requestMatchers(HttpMethod.POST, PUBLIC_ENDPOINTS)
+                .permitAll()
+                .requestMatchers(HttpMethod.GET, "/.well-known/jwks.json")
+                .permitAll()
+                // Healthcheck của docker không có token; chi tiết chỉ hiện khi token có ROLE_ADMIN
+                .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/health/**")
                 .permitAll()
                 .anyRequest()
                 .authenticated());
@@ -60,8 +66,9 @@ public class SecurityConfig {
         return converter;
     }
 
+    // Tăng strength thì hash cũ được nâng cấp dần khi user login (app.password-hashing.rehash-on-login)
     @Bean
-    PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(10);
+    PasswordEncoder passwordEncoder(@Value("${app.password-hashing.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
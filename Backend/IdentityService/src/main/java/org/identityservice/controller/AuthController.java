@@ -1,6 +1,7 @@
 package org.identityservice.controller;
 
 import java.text.ParseException;
+import java.util.List;
 
 import org.identityservice.dto.request.*;
 import org.identityservice.dto.response.AuthResponse;
@@ -34,6 +35,13 @@ public class AuthController {
         return ApiResponse.<IntrospecResponse>builder().result(result).build();
     }
 
+    // Kết quả trả về theo đúng thứ tự tokens trong request
+    @PostMapping("/introspect/batch")
+    ApiResponse<List<IntrospecResponse>> introspectBatch(@RequestBody IntrospectBatchRequest request) {
+        var result = authenticationService.introspectAll(request.getTokens());
+        return ApiResponse.<List<IntrospecResponse>>builder().result(result).build();
+    }
+
     @PostMapping("/logout")
     ApiResponse<Void> logout(@RequestBody LogoutRequest logoutRequest) throws ParseException, JOSEException {
         authenticationService.logout(logoutRequest);
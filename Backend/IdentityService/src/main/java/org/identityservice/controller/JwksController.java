@@ -0,0 +1,29 @@
+package org.identityservice.controller;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.identityservice.service.SigningKeyService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+// Định dạng JWK Set chuẩn (RFC 7517), không bọc ApiResponse để JwtDecoder của các service đọc trực tiếp
+@RestController
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class JwksController {
+    SigningKeyService signingKeyService;
+
+    @GetMapping("/.well-known/jwks.json")
+    ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES))
+                .body(signingKeyService.publicJwkSet());
+    }
+}
@@ -1,7 +1,6 @@
 package org.identityservice.controller;
 
 import java.util.HashSet;
-import java.util.List;
 
 import jakarta.validation.Valid;
 
@@ -9,6 +8,7 @@ import org.identityservice.dto.request.ApiResponse;
 import org.identityservice.dto.request.UserCreationPasswordRequest;
 import org.identityservice.dto.request.UserCreationRequest;
 import org.identityservice.dto.request.UserUpdateRequest;
+import org.identityservice.dto.response.UserPageResponse;
 import org.identityservice.dto.response.UserResponse;
 import org.identityservice.entity.User;
 import org.identityservice.exception.AppException;
@@ -56,18 +56,23 @@ public class UserController {
     }
 
     @PostMapping("/registrations")
-    public ApiResponse<?> createUsers(@RequestBody @Valid UserCreationRequest request) {
-        userService.createUsers(request);
-        return ApiResponse.builder().result(true).build();
+    public ApiResponse<Integer> createUsers(
+            @RequestBody @Valid UserCreationRequest request,
+            @RequestParam(value = "count", defaultValue = "10000") int count) {
+        return ApiResponse.<Integer>builder()
+                .result(userService.createUsers(request, count))
+                .build();
     }
 
-    @GetMapping("/all")
-    public ApiResponse<List<UserResponse>> getUsers() {
+    @GetMapping
+    public ApiResponse<UserPageResponse> getUsers(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
         var authentication = SecurityContextHolder.getContext().getAuthentication();
         log.info("username: {}", authentication.getName());
-        return ApiResponse.<List<UserResponse>>builder()
+        return ApiResponse.<UserPageResponse>builder()
                 .code(1000)
-                .result(userService.getUsers())
+                .result(userService.getUsers(cursor, limit))
                 .build();
     }
 
@@ -22,7 +22,11 @@ public enum ErrorCode {
     UNAUTHORIZED(1007, "you do not have permission", HttpStatus.FORBIDDEN),
     INVALID_DOB(1008, "Your age must be at least {min}", HttpStatus.BAD_REQUEST),
     PASSWORD_EXISTED(1010, "Password existed", HttpStatus.BAD_REQUEST),
-    INVALID_SECRET_KEY(1011, "Invalid secret ket", HttpStatus.BAD_REQUEST);
+    INVALID_SECRET_KEY(1011, "Invalid secret ket", HttpStatus.BAD_REQUEST),
+    BATCH_TOO_LARGE(1012, "Too many tokens in one batch", HttpStatus.BAD_REQUEST),
+    SERVER_BUSY(1013, "Server is busy, please try again", HttpStatus.SERVICE_UNAVAILABLE),
+    INVALID_CURSOR(1014, "Invalid page cursor", HttpStatus.BAD_REQUEST),
+    INVALID_BULK_COUNT(1015, "Number of users to create is out of range", HttpStatus.BAD_REQUEST);
     int code;
     String message;
     HttpStatusCode httpStatusCode;
@@ -0,0 +1,53 @@
+package org.identityservice.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.identityservice.entity.Role;
+import org.identityservice.entity.User;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+// Insert user hàng loạt bằng JDBC batch (bảng/cột theo naming mặc định của Hibernate cho entity User)
+@Repository
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class UserBatchRepository {
+    private static final String INSERT_USER = "INSERT INTO `user` "
+            + "(id, username, email, email_verified, password, first_name, last_name) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_USER_ROLE = "INSERT INTO user_roles (user_id, roles_name) VALUES (?, ?)";
+
+    JdbcTemplate jdbcTemplate;
+
+    // User phải có sẵn id; cả batch nằm trong một transaction
+    @Transactional
+    public void insertAll(List<User> users) {
+        jdbcTemplate.batchUpdate(INSERT_USER, users, users.size(), (ps, user) -> {
+            ps.setString(1, user.getId());
+            ps.setString(2, user.getUsername());
+            ps.setString(3, user.getEmail());
+            ps.setBoolean(4, user.isEmailVerified());
+            ps.setString(5, user.getPassword());
+            ps.setString(6, user.getFirstName());
+            ps.setString(7, user.getLastName());
+        });
+
+        List<Object[]> userRoles = new ArrayList<>();
+        for (User user : users) {
+            if (user.getRoles() == null) {
+                continue;
+            }
+            for (Role role : user.getRoles()) {
+                userRoles.add(new Object[] {user.getId(), role.getName()});
+            }
+        }
+        if (!userRoles.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_USER_ROLE, userRoles);
+        }
+    }
+}
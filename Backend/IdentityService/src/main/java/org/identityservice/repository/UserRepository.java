@@ -1,9 +1,14 @@
 package org.identityservice.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.identityservice.entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -11,5 +16,18 @@ public interface UserRepository extends JpaRepository<User, String> {
 
     boolean existsByUsername(String username);
 
+    // Roles được join luôn trong cùng query, permissions của role lấy từ RolePermissionCache
+    @EntityGraph(attributePaths = "roles")
     Optional<User> findByUsername(String username);
+
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findWithRolesById(String id);
+
+    // Keyset paging theo username (unique index): trang sau bắt đầu ngay sau username cuối của trang trước,
+    // không OFFSET nên trang sâu cũng chỉ đọc đúng số dòng cần lấy
+    @Query("SELECT u FROM User u ORDER BY u.username ASC")
+    List<User> findFirstPage(Pageable pageable);
+
+    @Query("SELECT u FROM User u WHERE u.username > :after ORDER BY u.username ASC")
+    List<User> findPageAfter(@Param("after") String after, Pageable pageable);
 }
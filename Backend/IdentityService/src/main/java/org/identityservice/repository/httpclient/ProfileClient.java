@@ -1,5 +1,7 @@
 package org.identityservice.repository.httpclient;
 
+import java.util.List;
+
 import org.identityservice.configuration.AuthenticationRequestInterceptor;
 import org.identityservice.dto.request.ApiResponse;
 import org.identityservice.dto.request.ProfileCreationRequest;
@@ -16,4 +18,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 public interface ProfileClient {
     @PostMapping(value = "/internal/users", produces = MediaType.APPLICATION_JSON_VALUE)
     ApiResponse<UserProfileResponse> createProfile(@RequestBody ProfileCreationRequest request);
+
+    @PostMapping(value = "/internal/users/bulk", produces = MediaType.APPLICATION_JSON_VALUE)
+    ApiResponse<Long> createProfiles(@RequestBody List<ProfileCreationRequest> requests);
 }
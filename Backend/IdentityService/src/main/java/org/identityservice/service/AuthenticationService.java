@@ -1,6 +1,7 @@
 package org.identityservice.service;
 
 import java.text.ParseException;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
@@ -8,27 +9,26 @@ import java.util.*;
 import org.identityservice.dto.request.*;
 import org.identityservice.dto.response.AuthResponse;
 import org.identityservice.dto.response.IntrospecResponse;
-import org.identityservice.entity.InvalidatedToken;
 import org.identityservice.entity.Role;
 import org.identityservice.entity.User;
 import org.identityservice.exception.AppException;
 import org.identityservice.exception.ErrorCode;
-import org.identityservice.repository.InvalidatedTokenRepository;
 import org.identityservice.repository.UserRepository;
 import org.identityservice.repository.httpclient.OutboundIdentityClient;
 import org.identityservice.repository.httpclient.OutboundUserClient;
 import org.identityservice.repository.httpclient.ProfileClient;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
 import com.nimbusds.jose.*;
-import com.nimbusds.jose.crypto.MACSigner;
-import com.nimbusds.jose.crypto.MACVerifier;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -40,17 +40,20 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class AuthenticationService {
+    private static final String FAMILY_CLAIM = "fid";
+
     UserRepository userRepository;
-    PasswordEncoder passwordEncoder;
-    InvalidatedTokenRepository tokenRepository;
+    PasswordHashingService passwordHashingService;
+    RolePermissionCache rolePermissionCache;
+    MeterRegistry meterRegistry;
+    RevokedTokenService revokedTokenService;
+    TokenFamilyService tokenFamilyService;
     OutboundIdentityClient outboundIdentityClient;
     OutboundUserClient outboundUserClient;
     ProfileClient profileClient;
     RedisService redisService;
-
-    @NonFinal
-    @Value("${jwt.signerKey}")
-    protected String SIGNER_KEY;
+    SigningKeyService signingKeyService;
+    VerifiedTokenCache verifiedTokenCache;
 
     @NonFinal
     @Value("${jwt.valid-duration}")
@@ -60,34 +63,84 @@ public class AuthenticationService {
     @Value("${jwt.refreshable-duration}")
     protected long REFRESHABLE_DURATION;
 
+    @NonFinal
+    @Value("${app.introspect.batch-max-size:200}")
+    int introspectBatchMaxSize;
+
+    @NonFinal
+    @Value("${app.password-hashing.rehash-on-login:false}")
+    boolean rehashOnLogin;
+
     public AuthResponse authenticate(AuthRequest authRequest) {
-        var user = userRepository
-                .findByUsername(authRequest.getUsername())
-                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
-        boolean authenticated = passwordEncoder.matches(authRequest.getPassword(), user.getPassword());
-        if (!authenticated) {
-            throw new AppException(ErrorCode.UNAUTHENTICATED);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String result = "failure";
+        try {
+            var user = userRepository
+                    .findByUsername(authRequest.getUsername())
+                    .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
+            boolean authenticated = passwordHashingService.matches(authRequest.getPassword(), user.getPassword());
+            if (!authenticated) {
+                throw new AppException(ErrorCode.UNAUTHENTICATED);
+            }
+            if (rehashOnLogin && passwordHashingService.needsRehash(user.getPassword())) {
+                rehash(user, authRequest.getPassword());
+            }
+            var token = generateToken(user);
+            redisService.setOnline(user.getId());
+            result = "success";
+            return AuthResponse.builder().token(token).authenticated(true).build();
+        } catch (AppException e) {
+            if (e.getErrorCode() == ErrorCode.SERVER_BUSY) {
+                result = "rejected";
+            }
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("identity.login")
+                    .tag("result", result)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry));
         }
-        var token = generateToken(user);
-        redisService.setOnline(user.getId());
-        return AuthResponse.builder().token(token).authenticated(true).build();
     }
 
+    // Nâng cost factor của hash cũ ngay khi biết password đúng, chạy nền để không cộng thêm latency cho login
+    private void rehash(User user, String rawPassword) {
+        String userId = user.getId();
+        String oldHash = user.getPassword();
+        passwordHashingService.encodeInBackground(
+                rawPassword, newHash -> userRepository.findById(userId).ifPresent(current -> {
+                    // Password đã đổi trong lúc chờ thì bỏ qua
+                    if (oldHash.equals(current.getPassword())) {
+                        current.setPassword(newHash);
+                        userRepository.save(current);
+                    }
+                }));
+    }
+
+    // Login: mở một refresh-token family mới
     private String generateToken(User user) {
-        JWSHeader header = new JWSHeader(JWSAlgorithm.HS512);
+        String jti = UUID.randomUUID().toString();
+        String familyId = tokenFamilyService.start(jti, Duration.ofSeconds(REFRESHABLE_DURATION));
+        return signToken(user.getId(), buildScope(user), familyId, jti);
+    }
+
+    private String signToken(String subject, String scope, String familyId, String jti) {
+        var signingKey = signingKeyService.currentKey();
+        JWSHeader header =
+                new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(signingKey.keyId()).build();
         JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
-                .subject(user.getId())
+                .subject(subject)
                 .issuer("Blur.vn")
                 .issueTime(new Date())
                 .expirationTime(new Date(
                         Instant.now().plus(VALID_DURATION, ChronoUnit.SECONDS).toEpochMilli()))
-                .jwtID(UUID.randomUUID().toString())
-                .claim("scope", buildScope(user))
+                .jwtID(jti)
+                .claim("scope", scope)
+                .claim(FAMILY_CLAIM, familyId)
                 .build();
         Payload payload = new Payload(claimsSet.toJSONObject());
         JWSObject jwsObject = new JWSObject(header, payload);
         try {
-            jwsObject.sign(new MACSigner(SIGNER_KEY.getBytes()));
+            jwsObject.sign(signingKey.signer());
             return jwsObject.serialize();
         } catch (JOSEException e) {
             throw new RuntimeException(e);
@@ -109,42 +162,90 @@ public class AuthenticationService {
                 .build();
     }
 
+    public List<IntrospecResponse> introspectAll(List<String> tokens) {
+        if (tokens == null || tokens.isEmpty()) {
+            return List.of();
+        }
+        if (tokens.size() > introspectBatchMaxSize) {
+            throw new AppException(ErrorCode.BATCH_TOO_LARGE);
+        }
+
+        // Cùng một token xuất hiện nhiều lần (reconnect của cùng user) chỉ verify một lần
+        Map<String, IntrospecResponse> results = new HashMap<>();
+        List<IntrospecResponse> responses = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            responses.add(results.computeIfAbsent(token, this::introspectQuietly));
+        }
+        return responses;
+    }
+
+    private IntrospecResponse introspectQuietly(String token) {
+        if (token == null || token.isBlank()) {
+            return IntrospecResponse.builder().valid(false).build();
+        }
+        try {
+            return introspect(IntrospectRequest.builder().token(token).build());
+        } catch (ParseException | JOSEException e) {
+            // Một token hỏng không làm fail cả batch
+            return IntrospecResponse.builder().valid(false).build();
+        }
+    }
+
     public void logout(LogoutRequest request) throws ParseException, JOSEException {
         try {
             var signToken = verifyToken(request.getToken(), true);
-            String jit = signToken.getJWTClaimsSet().getJWTID();
-            Date expiryTime = signToken.getJWTClaimsSet().getExpirationTime();
-            InvalidatedToken invalidatedToken =
-                    InvalidatedToken.builder().id(jit).expiryTime(expiryTime).build();
-            tokenRepository.save(invalidatedToken);
-            redisService.setOffline(signToken.getJWTClaimsSet().getSubject());
+            JWTClaimsSet claims = signToken.getJWTClaimsSet();
+            String familyId = claims.getStringClaim(FAMILY_CLAIM);
+            if (familyId == null) {
+                revokedTokenService.revoke(claims.getJWTID(), revokedUntil(signToken));
+            } else if (tokenFamilyService.isCurrent(familyId, claims.getJWTID())) {
+                tokenFamilyService.revoke(familyId);
+            }
+            redisService.setOffline(claims.getSubject());
         } catch (AppException e) {
             log.error("Token already expired");
         }
     }
 
+    // Refresh không ghi MySQL, trạng thái rotate nằm trong Redis; user vẫn được đọc lại (một query join roles)
+    // để user đã bị xoá không refresh được và scope luôn theo role hiện tại chứ không chép từ token cũ
     public AuthResponse refreshToken(RefreshRequest request) throws ParseException, JOSEException {
         var signJWT = verifyToken(request.getToken(), true);
-        var jit = signJWT.getJWTClaimsSet().getJWTID();
-        var expiryTime = signJWT.getJWTClaimsSet().getExpirationTime();
-
-        InvalidatedToken invalidatedToken =
-                InvalidatedToken.builder().id(jit).expiryTime(expiryTime).build();
-        tokenRepository.save(invalidatedToken);
-
-        // subject hiện tại là userId (do generateToken dùng user.getId())
-        String userId = signJWT.getJWTClaimsSet().getSubject();
-
-        User user = userRepository.findById(userId).orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
-
-        String token = generateToken(user);
+        JWTClaimsSet claims = signJWT.getJWTClaimsSet();
+        var user = userRepository
+                .findWithRolesById(claims.getSubject())
+                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
+        String familyId = claims.getStringClaim(FAMILY_CLAIM);
+        String nextJti = UUID.randomUUID().toString();
+        Duration familyTtl = Duration.ofSeconds(REFRESHABLE_DURATION);
+
+        if (familyId == null) {
+            // Token phát hành trước khi có family: thu hồi như cũ rồi mở family mới
+            revokedTokenService.revoke(claims.getJWTID(), revokedUntil(signJWT));
+            familyId = tokenFamilyService.start(nextJti, familyTtl);
+        } else {
+            var rotation = tokenFamilyService.rotate(familyId, claims.getJWTID(), nextJti, familyTtl);
+            refreshCounter(rotation.rotation().name().toLowerCase()).increment();
+            if (rotation.rotation() != TokenFamilyService.Rotation.ROTATED) {
+                throw new AppException(ErrorCode.UNAUTHENTICATED);
+            }
+            // Refresh lặp lại trong grace nhận token mang cùng jti kế tiếp đã cấp cho lần refresh đầu
+            nextJti = rotation.jti();
+        }
 
+        String token = signToken(user.getId(), buildScope(user), familyId, nextJti);
         return AuthResponse.builder().token(token).authenticated(true).build();
     }
 
+    private Counter refreshCounter(String result) {
+        return Counter.builder("identity.token.refresh").tag("result", result).register(meterRegistry);
+    }
+
     private SignedJWT verifyToken(String token, boolean isRefresh) throws ParseException, JOSEException {
-        JWSVerifier verifier = new MACVerifier(SIGNER_KEY.getBytes());
-        SignedJWT signedJWT = SignedJWT.parse(token);
+        SignedJWT signedJWT = verifiedTokenCache.parseVerified(token);
+        if (signedJWT == null) {
+            throw new AppException(ErrorCode.UNAUTHENTICATED);
+        }
 
         Date expirationDate = (isRefresh)
                 ? new Date(signedJWT
@@ -154,24 +255,36 @@ public class AuthenticationService {
                         .plus(REFRESHABLE_DURATION, ChronoUnit.SECONDS)
                         .toEpochMilli())
                 : signedJWT.getJWTClaimsSet().getExpirationTime();
-        var verified = signedJWT.verify(verifier);
-        if (!verified && expirationDate.after(new Date())) {
+        if (!expirationDate.after(new Date())) {
             throw new AppException(ErrorCode.UNAUTHENTICATED);
         }
-        if (tokenRepository.existsById((signedJWT.getJWTClaimsSet().getJWTID()))) {
+        JWTClaimsSet claims = signedJWT.getJWTClaimsSet();
+        String familyId = claims.getStringClaim(FAMILY_CLAIM);
+        if (familyId == null) {
+            if (revokedTokenService.isRevoked(claims.getJWTID())) {
+                throw new AppException(ErrorCode.UNAUTHENTICATED);
+            }
+        } else if (!isRefresh && !tokenFamilyService.isCurrent(familyId, claims.getJWTID())) {
+            // Token đã được rotate, family đã logout hoặc bị huỷ do reuse; refresh tự kiểm tra khi rotate
             throw new AppException(ErrorCode.UNAUTHENTICATED);
         }
         return signedJWT;
     }
 
+    // Token còn dùng được để refresh tới issueTime + REFRESHABLE_DURATION, nên phải bị chặn ít nhất tới mốc đó
+    private Date revokedUntil(SignedJWT signedJWT) throws ParseException {
+        JWTClaimsSet claims = signedJWT.getJWTClaimsSet();
+        Instant refreshableUntil = claims.getIssueTime().toInstant().plus(REFRESHABLE_DURATION, ChronoUnit.SECONDS);
+        Instant expiresAt = claims.getExpirationTime().toInstant();
+        return Date.from(refreshableUntil.isAfter(expiresAt) ? refreshableUntil : expiresAt);
+    }
+
     private String buildScope(User user) {
         StringJoiner stringJoiner = new StringJoiner(" ");
         if (!CollectionUtils.isEmpty(user.getRoles())) {
             user.getRoles().forEach(role -> {
                 stringJoiner.add("ROLE_" + role.getName());
-                if (!CollectionUtils.isEmpty(role.getPermissions())) {
-                    role.getPermissions().forEach(permission -> stringJoiner.add(permission.getName()));
-                }
+                rolePermissionCache.getPermissions(role.getName()).forEach(stringJoiner::add);
             });
         }
         return stringJoiner.toString();
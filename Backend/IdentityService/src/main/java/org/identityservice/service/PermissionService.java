@@ -20,6 +20,7 @@ import lombok.experimental.FieldDefaults;
 public class PermissionService {
     PermissionRepository permissionRepository;
     PermissionMapper permissionMapper;
+    RolePermissionCache rolePermissionCache;
 
     public PermissionResponse create(PermissionRequest request) {
         Permission permission = permissionMapper.toPermission(request);
@@ -35,5 +36,6 @@ public class PermissionService {
 
     public void delete(String permissionName) {
         permissionRepository.deleteById(permissionName);
+        rolePermissionCache.reload();
     }
 }
@@ -0,0 +1,62 @@
+package org.identityservice.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import org.identityservice.entity.InvalidatedToken;
+import org.identityservice.repository.InvalidatedTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Danh sách token đã bị thu hồi (logout / refresh), mỗi jti là một key Redis hết hạn cùng lúc với token,
+ * nên dữ liệu chỉ tỉ lệ với số token còn sống. Bảng InvalidatedToken trên MySQL chỉ còn là audit log tuỳ chọn.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class RevokedTokenService {
+    private static final String REVOKED_KEY_PREFIX = "identity:revoked-token:";
+
+    StringRedisTemplate stringRedisTemplate;
+    InvalidatedTokenRepository invalidatedTokenRepository;
+
+    @NonFinal
+    @Value("${app.token-revocation.audit-enabled:false}")
+    boolean auditEnabled;
+
+    public void revoke(String jti, Date revokedUntil) {
+        Duration ttl = Duration.between(Instant.now(), revokedUntil.toInstant());
+        if (ttl.isNegative() || ttl.isZero()) {
+            // Token đã hết hạn sử dụng, không cần giữ trong danh sách thu hồi
+            return;
+        }
+        stringRedisTemplate.opsForValue().set(REVOKED_KEY_PREFIX + jti, "1", ttl);
+
+        if (auditEnabled) {
+            invalidatedTokenRepository.save(
+                    InvalidatedToken.builder().id(jti).expiryTime(revokedUntil).build());
+        }
+    }
+
+    public boolean isRevoked(String jti) {
+        try {
+            return Boolean.TRUE.equals(stringRedisTemplate.hasKey(REVOKED_KEY_PREFIX + jti));
+        } catch (Exception e) {
+            if (!auditEnabled) {
+                throw e;
+            }
+            log.warn("Cannot read revoked tokens from Redis, falling back to audit table: {}", e.getMessage());
+            return invalidatedTokenRepository.existsById(jti);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.identityservice.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.identityservice.entity.Permission;
+import org.identityservice.entity.Role;
+import org.identityservice.repository.RoleRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Map role -> tên các permission dùng cho scope của JWT, giữ trong bộ nhớ để buildScope không phải
+ * load lazy permissions của từng role. Nạp lại khi RoleService/PermissionService thay đổi dữ liệu,
+ * và định kỳ (app.role-cache.refresh-interval) để các instance khác cũng thấy thay đổi.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class RolePermissionCache {
+    RoleRepository roleRepository;
+
+    @NonFinal
+    @Value("${app.role-cache.refresh-interval-ms:300000}")
+    long refreshIntervalMs;
+
+    @NonFinal
+    volatile Map<String, List<String>> permissionsByRole = Map.of();
+
+    AtomicLong loadedAt = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        Map<String, List<String>> loaded = roleRepository.findAllWithPermissions().stream()
+                .collect(Collectors.toUnmodifiableMap(
+                        Role::getName,
+                        role -> CollectionUtils.isEmpty(role.getPermissions())
+                                ? List.of()
+                                : role.getPermissions().stream()
+                                        .map(Permission::getName)
+                                        .sorted()
+                                        .toList()));
+        permissionsByRole = loaded;
+        loadedAt.set(System.currentTimeMillis());
+        log.info("Loaded permissions of {} roles", loaded.size());
+    }
+
+    public List<String> getPermissions(String roleName) {
+        long last = loadedAt.get();
+        long now = System.currentTimeMillis();
+        // Chỉ thread giành được CAS nạp lại, các request đồng thời khác dùng tiếp map hiện tại
+        if (now - last > refreshIntervalMs && loadedAt.compareAndSet(last, now)) {
+            try {
+                reload();
+            } catch (Exception e) {
+                // Giữ bản cũ nếu DB lỗi, thử lại sau một chu kỳ
+                log.warn("Cannot reload role permissions: {}", e.getMessage());
+            }
+        }
+        return permissionsByRole.getOrDefault(roleName, List.of());
+    }
+}
@@ -24,12 +24,14 @@ public class RoleService {
     RoleRepository roleRepository;
     PermissionRepository permissionRepository;
     RoleMapper roleMapper;
+    RolePermissionCache rolePermissionCache;
 
     public RoleResponse createRole(RoleRequest roleRequest) {
         var role = roleMapper.toRole(roleRequest);
         var permissions = permissionRepository.findAllById(roleRequest.getPermissions());
         role.setPermissions(new HashSet<>(permissions));
         roleRepository.save(role);
+        rolePermissionCache.reload();
         return roleMapper.toRoleResponse(role);
     }
 
@@ -44,5 +46,6 @@ public class RoleService {
 
     public void deleteRoleById(String roleName) {
         roleRepository.deleteById(roleName);
+        rolePermissionCache.reload();
     }
 }
@@ -0,0 +1,285 @@
+package org.identityservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import com.nimbusds.jose.EncryptionMethod;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.JWEObject;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.DirectDecrypter;
+import com.nimbusds.jose.crypto.DirectEncrypter;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bộ khoá RSA ký JWT (RS256), dùng chung giữa các instance qua Redis. Mỗi key có kid riêng; key hiện tại
+ * được thay sau app.jwt.key-rotation-interval, key cũ vẫn nằm trong JWKS tới khi mọi token nó đã ký
+ * (kể cả trong cửa sổ refresh) hết hạn. Các service khác verify bằng public key lấy từ /.well-known/jwks.json.
+ *
+ * Private key trong Redis luôn được mã hoá (JWE dir + A256GCM) bằng app.jwt.key-encryption-secret, secret này
+ * chỉ identity-service có; đọc được Redis cũng không ký được token. Nếu Redis mất dữ liệu, instance còn giữ
+ * bộ key trong bộ nhớ ghi lại chúng thay vì rotate, để token đã phát hành vẫn verify được.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class SigningKeyService {
+    private static final String KEY_PREFIX = "identity:jwt-key:";
+    private static final String KEY_IDS = "identity:jwt-keys";
+    private static final String CURRENT_KEY_ID = "identity:jwt-key-current";
+    // Không reload quá dày khi gặp kid lạ (token giả hoặc key vừa rotate ở instance khác)
+    private static final long MIN_RELOAD_INTERVAL_MS = 5000;
+
+    public record SigningKey(String keyId, JWSSigner signer) {}
+
+    StringRedisTemplate stringRedisTemplate;
+
+    @NonFinal
+    @Value("${app.jwt.key-rotation-interval:P7D}")
+    Duration rotationInterval;
+
+    @NonFinal
+    @Value("${app.jwt.key-refresh-interval-ms:60000}")
+    long refreshIntervalMs;
+
+    @NonFinal
+    @Value("${app.jwt.key-encryption-secret:${jwt.signerKey}}")
+    String keyEncryptionSecret;
+
+    @NonFinal
+    @Value("${jwt.valid-duration}")
+    long validDuration;
+
+    @NonFinal
+    @Value("${jwt.refreshable-duration}")
+    long refreshableDuration;
+
+    @NonFinal
+    SecretKey keyEncryptionKey;
+
+    @NonFinal
+    volatile SigningKey currentKey;
+
+    // Thời điểm key hiện tại hết lượt (TTL của CURRENT_KEY_ID lúc load), dùng khi phải khôi phục sau khi Redis mất dữ liệu
+    @NonFinal
+    volatile long currentKeyRotatesAt;
+
+    @NonFinal
+    volatile Map<String, RSAKey> keys = Map.of();
+
+    @NonFinal
+    volatile Map<String, JWSVerifier> verifiers = Map.of();
+
+    @NonFinal
+    volatile JWKSet publicKeys = new JWKSet();
+
+    @NonFinal
+    volatile long loadedAt;
+
+    @PostConstruct
+    void init() {
+        try {
+            byte[] digest =
+                    MessageDigest.getInstance("SHA-256").digest(keyEncryptionSecret.getBytes(StandardCharsets.UTF_8));
+            keyEncryptionKey = new SecretKeySpec(digest, "AES");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        String currentKid = stringRedisTemplate.opsForValue().get(CURRENT_KEY_ID);
+        if (currentKid == null) {
+            currentKid = currentKey != null && System.currentTimeMillis() < currentKeyRotatesAt
+                    ? restore()
+                    : rotate();
+        }
+        Long currentTtlMs = stringRedisTemplate.getExpire(CURRENT_KEY_ID, TimeUnit.MILLISECONDS);
+
+        Set<String> kids = stringRedisTemplate.opsForSet().members(KEY_IDS);
+        List<String> kidList = kids == null ? List.of() : new ArrayList<>(kids);
+        List<String> values = kidList.isEmpty()
+                ? List.of()
+                : stringRedisTemplate.opsForValue().multiGet(kidList.stream().map(kid -> KEY_PREFIX + kid).toList());
+
+        Map<String, RSAKey> loaded = new LinkedHashMap<>();
+        for (int i = 0; i < kidList.size(); i++) {
+            String sealed = values == null ? null : values.get(i);
+            if (sealed == null) {
+                // Key đã hết thời gian giữ lại
+                stringRedisTemplate.opsForSet().remove(KEY_IDS, kidList.get(i));
+                continue;
+            }
+            try {
+                loaded.put(kidList.get(i), unseal(sealed));
+            } catch (ParseException | JOSEException e) {
+                log.error("Cannot read signing key {}: {}", kidList.get(i), e.getMessage());
+            }
+        }
+
+        RSAKey current = loaded.get(currentKid);
+        if (current == null) {
+            throw new IllegalStateException("Current signing key " + currentKid + " is missing");
+        }
+
+        try {
+            Map<String, JWSVerifier> loadedVerifiers = new LinkedHashMap<>();
+            for (RSAKey key : loaded.values()) {
+                loadedVerifiers.put(key.getKeyID(), new RSASSAVerifier(key.toRSAPublicKey()));
+            }
+            currentKey = new SigningKey(currentKid, new RSASSASigner(current));
+            currentKeyRotatesAt = System.currentTimeMillis()
+                    + (currentTtlMs != null && currentTtlMs > 0 ? currentTtlMs : rotationInterval.toMillis());
+            keys = Map.copyOf(loaded);
+            verifiers = Map.copyOf(loadedVerifiers);
+            publicKeys = new JWKSet(new ArrayList<JWK>(loaded.values())).toPublicJWKSet();
+            loadedAt = System.currentTimeMillis();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Cannot load signing keys", e);
+        }
+        log.info("Loaded {} signing keys, current kid {}", loaded.size(), currentKid);
+    }
+
+    // kid và signer lấy cùng lúc để header luôn khớp với key đã ký
+    public SigningKey currentKey() {
+        refreshIfStale(refreshIntervalMs);
+        return currentKey;
+    }
+
+    /**
+     * Verifier theo kid trong header, null nếu không có key tương ứng.
+     */
+    public JWSVerifier verifier(String kid) {
+        if (kid == null) {
+            return null;
+        }
+        JWSVerifier verifier = verifiers.get(kid);
+        if (verifier == null) {
+            refreshIfStale(MIN_RELOAD_INTERVAL_MS);
+            verifier = verifiers.get(kid);
+        }
+        return verifier;
+    }
+
+    // Chỉ public key, private key không bao giờ rời khỏi identity-service ở dạng rõ
+    public Map<String, Object> publicJwkSet() {
+        refreshIfStale(refreshIntervalMs);
+        return publicKeys.toJSONObject();
+    }
+
+    private void refreshIfStale(long maxAgeMs) {
+        if (currentKey != null && System.currentTimeMillis() - loadedAt <= maxAgeMs) {
+            return;
+        }
+        try {
+            reload();
+        } catch (Exception e) {
+            if (currentKey == null) {
+                throw e;
+            }
+            // Giữ bộ key cũ nếu Redis lỗi, lần sau sẽ thử lại
+            log.warn("Cannot reload signing keys: {}", e.getMessage());
+        }
+    }
+
+    private String rotate() {
+        RSAKey key;
+        try {
+            key = new RSAKeyGenerator(2048)
+                    .keyID(UUID.randomUUID().toString())
+                    .keyUse(KeyUse.SIGNATURE)
+                    .algorithm(JWSAlgorithm.RS256)
+                    .generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Cannot generate signing key", e);
+        }
+        store(key);
+
+        Boolean won = stringRedisTemplate
+                .opsForValue()
+                .setIfAbsent(CURRENT_KEY_ID, key.getKeyID(), rotationInterval);
+        if (Boolean.TRUE.equals(won)) {
+            log.info("Rotated JWT signing key, new kid {}", key.getKeyID());
+            return key.getKeyID();
+        }
+        // Instance khác đã rotate cùng lúc: dùng key của nó, key vừa tạo bỏ đi
+        stringRedisTemplate.delete(KEY_PREFIX + key.getKeyID());
+        stringRedisTemplate.opsForSet().remove(KEY_IDS, key.getKeyID());
+        return stringRedisTemplate.opsForValue().get(CURRENT_KEY_ID);
+    }
+
+    // Redis mất bộ key (flush, failover không persist) trong khi key hiện tại chưa tới hạn rotate:
+    // ghi lại các key đang giữ trong bộ nhớ thay vì sinh key mới làm mọi token đang dùng mất hiệu lực
+    private String restore() {
+        log.warn("Signing keys are missing from Redis, restoring {} keys held in memory", keys.size());
+        keys.values().forEach(this::store);
+
+        Duration remaining = Duration.ofMillis(Math.max(1, currentKeyRotatesAt - System.currentTimeMillis()));
+        Boolean won = stringRedisTemplate.opsForValue().setIfAbsent(CURRENT_KEY_ID, currentKey.keyId(), remaining);
+        return Boolean.TRUE.equals(won) ? currentKey.keyId() : stringRedisTemplate.opsForValue().get(CURRENT_KEY_ID);
+    }
+
+    private void store(RSAKey key) {
+        // Key phải còn trong JWKS tới khi token cuối cùng nó ký hết hạn refresh
+        Duration retention = rotationInterval.plusSeconds(Math.max(validDuration, refreshableDuration));
+        stringRedisTemplate.opsForValue().set(KEY_PREFIX + key.getKeyID(), seal(key), retention);
+        stringRedisTemplate.opsForSet().add(KEY_IDS, key.getKeyID());
+    }
+
+    private String seal(RSAKey key) {
+        try {
+            JWEObject jwe = new JWEObject(
+                    new JWEHeader(JWEAlgorithm.DIR, EncryptionMethod.A256GCM), new Payload(key.toJSONString()));
+            jwe.encrypt(new DirectEncrypter(keyEncryptionKey));
+            return jwe.serialize();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Cannot encrypt signing key " + key.getKeyID(), e);
+        }
+    }
+
+    private RSAKey unseal(String sealed) throws ParseException, JOSEException {
+        JWEObject jwe = JWEObject.parse(sealed);
+        jwe.decrypt(new DirectDecrypter(keyEncryptionKey));
+        return RSAKey.parse(jwe.getPayload().toString());
+    }
+}
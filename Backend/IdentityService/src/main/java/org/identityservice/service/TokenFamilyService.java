@@ -0,0 +1,108 @@
+package org.identityservice.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Refresh-token family: mỗi lần login mở một family, Redis chỉ giữ jti hiện tại của family đó.
+ * Refresh = đổi jti hiện tại sang jti mới (một lệnh Lua, không ghi MySQL). Token cũ của family bị dùng lại
+ * để refresh nghĩa là token đã bị lộ, cả family bị huỷ và user phải đăng nhập lại.
+ *
+ * Ngoại lệ: jti vừa bị thay, dùng lại trong app.token-family.reuse-grace-ms, nhận lại đúng jti kế tiếp đã cấp
+ * thay vì huỷ family; mobile hay bắn vài request refresh song song với cùng token khi cùng nhận 401.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TokenFamilyService {
+    private static final String FAMILY_KEY_PREFIX = "identity:token-family:";
+    private static final String CURRENT_FIELD = "current";
+    private static final String UNKNOWN = "-1";
+    private static final String REUSED = "0";
+
+    // HSET + EXPIRE trong một lệnh để không bao giờ còn family không có TTL nếu lệnh thứ hai lỗi
+    private static final RedisScript<Long> START = new DefaultRedisScript<>(
+            "redis.call('HSET', KEYS[1], 'current', ARGV[1]) "
+                    + "redis.call('EXPIRE', KEYS[1], ARGV[2]) "
+                    + "return 1",
+            Long.class);
+
+    // Trả về jti kế tiếp (vừa rotate, hoặc jti đã cấp nếu là jti trước đó còn trong grace),
+    // "0" = reuse (family bị xoá), "-1" = family không còn
+    private static final RedisScript<String> ROTATE = new DefaultRedisScript<>(
+            "local family = redis.call('HMGET', KEYS[1], 'current', 'previous', 'rotated_at') "
+                    + "if not family[1] then return '-1' end "
+                    + "if family[1] == ARGV[1] then "
+                    + "redis.call('HSET', KEYS[1], 'current', ARGV[2], 'previous', ARGV[1], 'rotated_at', ARGV[4]) "
+                    + "redis.call('EXPIRE', KEYS[1], ARGV[3]) "
+                    + "return ARGV[2] end "
+                    + "if family[2] == ARGV[1] and tonumber(ARGV[4]) - tonumber(family[3]) <= tonumber(ARGV[5]) then "
+                    + "return family[1] end "
+                    + "redis.call('DEL', KEYS[1]) "
+                    + "return '0'",
+            String.class);
+
+    public enum Rotation {
+        ROTATED,
+        REUSED,
+        UNKNOWN
+    }
+
+    // jti: jti mà token mới phải mang khi ROTATED, null trong các trường hợp còn lại
+    public record RotationResult(Rotation rotation, String jti) {}
+
+    StringRedisTemplate stringRedisTemplate;
+
+    @NonFinal
+    @Value("${app.token-family.reuse-grace-ms:10000}")
+    long reuseGraceMs;
+
+    public String start(String jti, Duration ttl) {
+        String familyId = UUID.randomUUID().toString();
+        stringRedisTemplate.execute(
+                START, List.of(FAMILY_KEY_PREFIX + familyId), jti, String.valueOf(ttl.getSeconds()));
+        return familyId;
+    }
+
+    public RotationResult rotate(String familyId, String currentJti, String nextJti, Duration ttl) {
+        String result = stringRedisTemplate.execute(
+                ROTATE,
+                List.of(FAMILY_KEY_PREFIX + familyId),
+                currentJti,
+                nextJti,
+                String.valueOf(ttl.getSeconds()),
+                String.valueOf(System.currentTimeMillis()),
+                String.valueOf(reuseGraceMs));
+        if (result == null || UNKNOWN.equals(result)) {
+            return new RotationResult(Rotation.UNKNOWN, null);
+        }
+        if (REUSED.equals(result)) {
+            log.warn("Refresh token reuse detected, family {} revoked", familyId);
+            return new RotationResult(Rotation.REUSED, null);
+        }
+        return new RotationResult(Rotation.ROTATED, result);
+    }
+
+    public boolean isCurrent(String familyId, String jti) {
+        Object current = stringRedisTemplate.opsForHash().get(FAMILY_KEY_PREFIX + familyId, CURRENT_FIELD);
+        return jti.equals(current);
+    }
+
+    public void revoke(String familyId) {
+        stringRedisTemplate.delete(FAMILY_KEY_PREFIX + familyId);
+    }
+}
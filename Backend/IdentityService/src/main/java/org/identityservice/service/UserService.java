@@ -1,11 +1,18 @@
 package org.identityservice.service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
 
 import org.identityservice.dto.request.UserCreationPasswordRequest;
 import org.identityservice.dto.request.UserCreationRequest;
 import org.identityservice.dto.request.UserUpdateRequest;
+import org.identityservice.dto.response.UserPageResponse;
 import org.identityservice.dto.response.UserResponse;
 import org.identityservice.entity.Role;
 import org.identityservice.entity.User;
@@ -14,12 +21,15 @@ import org.identityservice.exception.ErrorCode;
 import org.identityservice.mapper.ProfileMapper;
 import org.identityservice.mapper.UserMapper;
 import org.identityservice.repository.RoleRepository;
+import org.identityservice.repository.UserBatchRepository;
 import org.identityservice.repository.UserRepository;
 import org.identityservice.repository.httpclient.ProfileClient;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -30,6 +40,7 @@ import org.springframework.util.StringUtils;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -40,22 +51,30 @@ public class UserService {
     UserRepository userRepository;
     UserMapper userMapper;
     PasswordEncoder passwordEncoder;
+    PasswordHashingService passwordHashingService;
     ProfileClient profileClient;
     ProfileMapper profileMapper;
     RoleRepository roleRepository;
+    UserBatchRepository userBatchRepository;
     RedisTemplate<String, Object> redisTemplate;
 
+    @NonFinal
+    @Value("${app.bulk-users.batch-size:1000}")
+    int bulkBatchSize;
+
+    @NonFinal
+    @Value("${app.bulk-users.max-count:10000}")
+    int bulkMaxCount;
+
     private static final String USER_CACHE_PREFIX = "user:";
-    private static final String USER_LIST_CACHE_KEY = "users:all";
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
 
-    @Caching(
-            evict = {
-                @CacheEvict(value = "users", allEntries = true),
-                @CacheEvict(value = "userById", key = "#result.id", condition = "#result != null")
-            })
+    // Không evict userPages khi đăng ký: user mới hiện ra trong danh sách admin sau TTL ngắn của cache
+    @CacheEvict(value = "userById", key = "#result.id", condition = "#result != null")
     public UserResponse createUser(UserCreationRequest request) {
         User user = userMapper.toUser(request);
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingService.encode(request.getPassword()));
         HashSet<Role> roles = new HashSet<>();
         roleRepository.findById("USER").ifPresent(roles::add);
         user.setRoles(roles);
@@ -80,33 +99,60 @@ public class UserService {
         return userResponse;
     }
 
-    public void createUsers(UserCreationRequest request) {
-        for (int i = 1; i <= 10000; i++) {
-            User user = userMapper.toUser(request);
-            user.setUsername(request.getUsername() + i);
-            user.setEmail(user.getEmail() + i);
-            user.setPassword(passwordEncoder.encode(request.getPassword()));
-            HashSet<Role> roles = new HashSet<>();
-            roleRepository.findById("USER").ifPresent(roles::add);
-            user.setRoles(roles);
-            user.setEmailVerified(false);
-            try {
-                userRepository.save(user);
+    // Seed user cho môi trường test tải: mỗi batch hash password song song trên các core,
+    // insert bằng JDBC batch rồi tạo profile bằng một lần gọi bulk sang profile-service.
+    // Chỉ admin gọi được, số lượng giới hạn bởi app.bulk-users.max-count
+    @PreAuthorize("hasRole('ADMIN')")
+    public int createUsers(UserCreationRequest request, int count) {
+        if (count <= 0 || count > bulkMaxCount) {
+            throw new AppException(ErrorCode.INVALID_BULK_COUNT);
+        }
+        Set<Role> roles = new HashSet<>();
+        roleRepository.findById("USER").ifPresent(roles::add);
 
+        long started = System.currentTimeMillis();
+        int created = 0;
+        for (int from = 1; from <= count; from += bulkBatchSize) {
+            int to = Math.min(from + bulkBatchSize - 1, count);
+            List<User> users = IntStream.rangeClosed(from, to)
+                    .parallel()
+                    .mapToObj(i -> newBulkUser(request, i, roles))
+                    .toList();
+            try {
+                userBatchRepository.insertAll(users);
             } catch (DataIntegrityViolationException ex) {
                 throw new AppException(ErrorCode.USER_EXISTED);
             }
-            // tao profile tu user da nhan
-            var profileResponse = profileMapper.toProfileCreationRequest(request);
-            profileResponse.setUsername(user.getUsername());
-            // mapping userid tu user vao profile
-            profileResponse.setUserId(user.getId());
-            profileResponse.setEmail(user.getEmail());
-            profileClient.createProfile(profileResponse);
-            // build notification event
-
-            var userResponse = userMapper.toUserResponse(user);
+
+            profileClient.createProfiles(users.stream()
+                    .map(user -> {
+                        var profileRequest = profileMapper.toProfileCreationRequest(request);
+                        profileRequest.setUsername(user.getUsername());
+                        profileRequest.setUserId(user.getId());
+                        profileRequest.setEmail(user.getEmail());
+                        return profileRequest;
+                    })
+                    .toList());
+
+            created += users.size();
+            log.info(
+                    "Bulk user creation: {}/{} users created in {} ms",
+                    created,
+                    count,
+                    System.currentTimeMillis() - started);
         }
+        return created;
+    }
+
+    private User newBulkUser(UserCreationRequest request, int index, Set<Role> roles) {
+        User user = userMapper.toUser(request);
+        user.setId(UUID.randomUUID().toString());
+        user.setUsername(request.getUsername() + index);
+        user.setEmail(user.getEmail() + index);
+        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setRoles(roles);
+        user.setEmailVerified(false);
+        return user;
     }
 
     // Create Password for google
@@ -126,15 +172,44 @@ public class UserService {
             throw new AppException(ErrorCode.UNAUTHENTICATED); // hoặc ErrorCode.INVALID_PASSWORD
         }
 
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingService.encode(request.getPassword()));
         userRepository.save(user);
     }
 
+    // Danh sách user cho admin, sắp theo username; cursor là username cuối của trang trước (Base64 URL)
     @PreAuthorize("hasRole('ADMIN')")
-    @Cacheable(value = "users", unless = "#result == null || #result.isEmpty()")
-    public List<UserResponse> getUsers() {
-        log.info("Getting users");
-        return userRepository.findAll().stream().map(userMapper::toUserResponse).toList();
+    @Cacheable(value = "userPages", key = "(#cursor ?: '') + ':' + #limit")
+    public UserPageResponse getUsers(String cursor, Integer limit) {
+        int size = limit == null || limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        // Lấy dư 1 phần tử để biết còn trang sau hay không
+        PageRequest pageRequest = PageRequest.of(0, size + 1);
+
+        List<User> users = cursor == null || cursor.isBlank()
+                ? userRepository.findFirstPage(pageRequest)
+                : userRepository.findPageAfter(decodeCursor(cursor), pageRequest);
+
+        boolean hasNext = users.size() > size;
+        List<User> page = hasNext ? users.subList(0, size) : users;
+        // ArrayList thay vì toList(): giá trị cache được serialize kèm kiểu, list bất biến của JDK không đọc lại được
+        List<UserResponse> items = new ArrayList<>(page.size());
+        page.forEach(user -> items.add(userMapper.toUserResponse(user)));
+        return UserPageResponse.builder()
+                .items(items)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? encodeCursor(page.get(page.size() - 1).getUsername()) : null)
+                .build();
+    }
+
+    private String encodeCursor(String username) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(username.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String decodeCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
     }
 
     @Cacheable(value = "userById", key = "#userId", unless = "#result == null")
@@ -142,6 +217,11 @@ public class UserService {
         return userRepository.findById(userId).orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
     }
 
+    @Caching(
+            evict = {
+                @CacheEvict(value = "userPages", allEntries = true),
+                @CacheEvict(value = "userById", key = "#userId")
+            })
     public User updateUser(String userId, UserUpdateRequest request) {
         User user = getUserById(userId);
         userMapper.updateUser(user, request);
@@ -150,7 +230,7 @@ public class UserService {
 
     @Caching(
             evict = {
-                @CacheEvict(value = "users", allEntries = true),
+                @CacheEvict(value = "userPages", allEntries = true),
                 @CacheEvict(value = "userById", key = "#userId"),
                 @CacheEvict(value = "myInfo", key = "#root.target.getUsernameById(#userId)")
             })
@@ -0,0 +1,84 @@
+package org.identityservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jwt.SignedJWT;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+
+/**
+ * Cache LRU các token đã verify chữ ký, key là SHA-256 của token (không giữ chuỗi token gốc làm key).
+ * Chỉ bỏ qua bước parse + verify chữ ký; hạn dùng và danh sách thu hồi vẫn do caller kiểm tra mỗi lần.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class VerifiedTokenCache {
+    JWSVerifier jwsVerifier;
+    SigningKeyService signingKeyService;
+
+    @NonFinal
+    @Value("${app.token-cache.max-size:5000}")
+    int maxSize;
+
+    @NonFinal
+    Map<String, SignedJWT> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SignedJWT> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * Trả về token đã parse nếu chữ ký hợp lệ, null nếu chữ ký sai (token sai chữ ký không được cache).
+     */
+    public SignedJWT parseVerified(String token) throws ParseException, JOSEException {
+        String key = hash(token);
+        SignedJWT cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        SignedJWT signedJWT = SignedJWT.parse(token);
+        JWSVerifier verifier = JWSAlgorithm.HS512.equals(signedJWT.getHeader().getAlgorithm())
+                ? jwsVerifier
+                : signingKeyService.verifier(signedJWT.getHeader().getKeyID());
+        if (verifier == null || !signedJWT.verify(verifier)) {
+            return null;
+        }
+        cache.put(key, signedJWT);
+        return signedJWT;
+    }
+
+    private String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
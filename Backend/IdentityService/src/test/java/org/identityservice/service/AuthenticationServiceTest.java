@@ -0,0 +1,188 @@
+package org.identityservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.identityservice.dto.request.LogoutRequest;
+import org.identityservice.dto.request.RefreshRequest;
+import org.identityservice.entity.Role;
+import org.identityservice.entity.User;
+import org.identityservice.exception.AppException;
+import org.identityservice.exception.ErrorCode;
+import org.identityservice.repository.UserRepository;
+import org.identityservice.repository.httpclient.OutboundIdentityClient;
+import org.identityservice.repository.httpclient.OutboundUserClient;
+import org.identityservice.repository.httpclient.ProfileClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AuthenticationServiceTest {
+    private static final String USER_ID = "user-1";
+    private static final String FAMILY_ID = "family-1";
+    private static final String JTI = "jti-1";
+
+    UserRepository userRepository = mock(UserRepository.class);
+    RolePermissionCache rolePermissionCache = mock(RolePermissionCache.class);
+    RevokedTokenService revokedTokenService = mock(RevokedTokenService.class);
+    TokenFamilyService tokenFamilyService = mock(TokenFamilyService.class);
+    RedisService redisService = mock(RedisService.class);
+    SigningKeyService signingKeyService = mock(SigningKeyService.class);
+    VerifiedTokenCache verifiedTokenCache = mock(VerifiedTokenCache.class);
+
+    AuthenticationService authenticationService;
+    RSASSASigner signer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        authenticationService = new AuthenticationService(
+                userRepository,
+                mock(PasswordHashingService.class),
+                rolePermissionCache,
+                new SimpleMeterRegistry(),
+                revokedTokenService,
+                tokenFamilyService,
+                mock(OutboundIdentityClient.class),
+                mock(OutboundUserClient.class),
+                mock(ProfileClient.class),
+                redisService,
+                signingKeyService,
+                verifiedTokenCache);
+        ReflectionTestUtils.setField(authenticationService, "VALID_DURATION", 3600L);
+        ReflectionTestUtils.setField(authenticationService, "REFRESHABLE_DURATION", 36000L);
+
+        RSAKey key = new RSAKeyGenerator(2048).keyID("kid-1").generate();
+        signer = new RSASSASigner(key);
+        when(signingKeyService.currentKey()).thenReturn(new SigningKeyService.SigningKey("kid-1", signer));
+    }
+
+    @Test
+    void refreshIssuesSuccessorWithScopeOfCurrentRoles() throws Exception {
+        String token = givenToken("ROLE_USER");
+        when(userRepository.findWithRolesById(USER_ID)).thenReturn(Optional.of(userWithRole("ADMIN")));
+        when(rolePermissionCache.getPermissions("ADMIN")).thenReturn(List.of("DELETE_USER"));
+        when(tokenFamilyService.rotate(eq(FAMILY_ID), eq(JTI), anyString(), any()))
+                .thenReturn(new TokenFamilyService.RotationResult(TokenFamilyService.Rotation.ROTATED, "jti-2"));
+
+        var response = authenticationService.refreshToken(
+                RefreshRequest.builder().token(token).build());
+
+        JWTClaimsSet claims = SignedJWT.parse(response.getToken()).getJWTClaimsSet();
+        assertThat(claims.getJWTID()).isEqualTo("jti-2");
+        assertThat(claims.getSubject()).isEqualTo(USER_ID);
+        assertThat(claims.getStringClaim("fid")).isEqualTo(FAMILY_ID);
+        assertThat(claims.getStringClaim("scope")).isEqualTo("ROLE_ADMIN DELETE_USER");
+    }
+
+    @Test
+    void refreshWithReusedTokenIsRejected() throws Exception {
+        String token = givenToken("ROLE_USER");
+        when(userRepository.findWithRolesById(USER_ID)).thenReturn(Optional.of(userWithRole("USER")));
+        when(tokenFamilyService.rotate(eq(FAMILY_ID), eq(JTI), anyString(), any()))
+                .thenReturn(new TokenFamilyService.RotationResult(TokenFamilyService.Rotation.REUSED, null));
+
+        assertThatThrownBy(() -> authenticationService.refreshToken(
+                        RefreshRequest.builder().token(token).build()))
+                .isInstanceOf(AppException.class)
+                .extracting(e -> ((AppException) e).getErrorCode())
+                .isEqualTo(ErrorCode.UNAUTHENTICATED);
+    }
+
+    @Test
+    void refreshOfUnknownFamilyIsRejected() throws Exception {
+        String token = givenToken("ROLE_USER");
+        when(userRepository.findWithRolesById(USER_ID)).thenReturn(Optional.of(userWithRole("USER")));
+        when(tokenFamilyService.rotate(eq(FAMILY_ID), eq(JTI), anyString(), any()))
+                .thenReturn(new TokenFamilyService.RotationResult(TokenFamilyService.Rotation.UNKNOWN, null));
+
+        assertThatThrownBy(() -> authenticationService.refreshToken(
+                        RefreshRequest.builder().token(token).build()))
+                .isInstanceOf(AppException.class)
+                .extracting(e -> ((AppException) e).getErrorCode())
+                .isEqualTo(ErrorCode.UNAUTHENTICATED);
+    }
+
+    @Test
+    void refreshOfDeletedUserIsRejectedWithoutRotating() throws Exception {
+        String token = givenToken("ROLE_USER");
+        when(userRepository.findWithRolesById(USER_ID)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> authenticationService.refreshToken(
+                        RefreshRequest.builder().token(token).build()))
+                .isInstanceOf(AppException.class)
+                .extracting(e -> ((AppException) e).getErrorCode())
+                .isEqualTo(ErrorCode.USER_NOT_EXISTED);
+        verify(tokenFamilyService, never()).rotate(anyString(), anyString(), anyString(), any());
+    }
+
+    @Test
+    void logoutOfRotatedTokenKeepsFamily() throws Exception {
+        String token = givenToken("ROLE_USER");
+        when(tokenFamilyService.isCurrent(FAMILY_ID, JTI)).thenReturn(false);
+
+        authenticationService.logout(LogoutRequest.builder().token(token).build());
+
+        verify(tokenFamilyService, never()).revoke(FAMILY_ID);
+    }
+
+    @Test
+    void logoutOfCurrentTokenRevokesFamily() throws Exception {
+        String token = givenToken("ROLE_USER");
+        when(tokenFamilyService.isCurrent(FAMILY_ID, JTI)).thenReturn(true);
+
+        authenticationService.logout(LogoutRequest.builder().token(token).build());
+
+        verify(tokenFamilyService).revoke(FAMILY_ID);
+        verify(redisService).setOffline(USER_ID);
+    }
+
+    private String givenToken(String scope) throws Exception {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject(USER_ID)
+                .issuer("Blur.vn")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(1, ChronoUnit.HOURS)))
+                .jwtID(JTI)
+                .claim("scope", scope)
+                .claim("fid", FAMILY_ID)
+                .build();
+        SignedJWT jwt = new SignedJWT(
+                new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("kid-1").build(), claims);
+        jwt.sign(signer);
+        String token = jwt.serialize();
+        when(verifiedTokenCache.parseVerified(token)).thenReturn(SignedJWT.parse(token));
+        return token;
+    }
+
+    private User userWithRole(String roleName) {
+        return User.builder()
+                .id(USER_ID)
+                .roles(Set.of(Role.builder().name(roleName).build()))
+                .build();
+    }
+}
@@ -0,0 +1,90 @@
+package org.identityservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class TokenFamilyServiceTest {
+    private static final String FAMILY_KEY = "identity:token-family:family-1";
+    private static final Duration TTL = Duration.ofHours(1);
+
+    @Mock
+    StringRedisTemplate stringRedisTemplate;
+
+    @InjectMocks
+    TokenFamilyService tokenFamilyService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tokenFamilyService, "reuseGraceMs", 10000L);
+    }
+
+    @Test
+    void rotateCurrentJtiReturnsNewJti() {
+        givenRotateScriptReturns("jti-2");
+
+        var result = tokenFamilyService.rotate("family-1", "jti-1", "jti-2", TTL);
+
+        assertThat(result.rotation()).isEqualTo(TokenFamilyService.Rotation.ROTATED);
+        assertThat(result.jti()).isEqualTo("jti-2");
+    }
+
+    @Test
+    void rotatePreviousJtiWithinGraceReturnsIssuedSuccessor() {
+        givenRotateScriptReturns("jti-already-issued");
+
+        var result = tokenFamilyService.rotate("family-1", "jti-1", "jti-2", TTL);
+
+        assertThat(result.rotation()).isEqualTo(TokenFamilyService.Rotation.ROTATED);
+        assertThat(result.jti()).isEqualTo("jti-already-issued");
+    }
+
+    @Test
+    void rotateReusedJtiIsReported() {
+        givenRotateScriptReturns("0");
+
+        var result = tokenFamilyService.rotate("family-1", "jti-1", "jti-2", TTL);
+
+        assertThat(result.rotation()).isEqualTo(TokenFamilyService.Rotation.REUSED);
+        assertThat(result.jti()).isNull();
+    }
+
+    @Test
+    void rotateMissingFamilyIsUnknown() {
+        givenRotateScriptReturns("-1");
+
+        var result = tokenFamilyService.rotate("family-1", "jti-1", "jti-2", TTL);
+
+        assertThat(result.rotation()).isEqualTo(TokenFamilyService.Rotation.UNKNOWN);
+        assertThat(result.jti()).isNull();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenRotateScriptReturns(String result) {
+        when(stringRedisTemplate.execute(
+                        any(RedisScript.class),
+                        eq(List.of(FAMILY_KEY)),
+                        eq("jti-1"),
+                        eq("jti-2"),
+                        eq("3600"),
+                        anyString(),
+                        eq("10000")))
+                .thenReturn(result);
+    }
+}
@@ -2,6 +2,7 @@ package com.blur.apigateway.configuration;
 
 import com.blur.apigateway.dto.response.ApiResponse;
 import com.blur.apigateway.service.IdentityService;
+import com.blur.apigateway.service.TokenRevocationService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AccessLevel;
@@ -20,6 +21,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.server.ServerWebExchange;
@@ -34,12 +37,15 @@ import java.util.List;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class AuthenticationFilter implements GlobalFilter, Ordered {
     IdentityService identityService;
+    TokenRevocationService tokenRevocationService;
+    ReactiveJwtDecoder jwtDecoder;
     ObjectMapper objectMapper;
 
     @NonFinal
     String[] publicEndpoints = {
             "/identity/auth/.*",
-            "/identity/users/registration.*",
+            // Chỉ đăng ký một user; /users/registrations (seed hàng loạt) phải qua xác thực
+            "/identity/users/registration",
             "/notification/email/send.*",
             "/actuator/.*",
             "/users/create-many"
@@ -49,6 +55,10 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
     @NonFinal
     private String apiPrefix;
 
+    @Value("${app.auth.check-revocation:true}")
+    @NonFinal
+    private boolean checkRevocation;
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         String path = exchange.getRequest().getURI().getPath();
@@ -79,10 +89,15 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
         String token = authHeader.get(0).replace("Bearer ", "");
         log.info("🔐 Verifying token for: {}", path);
 
-        // Verify token
-        return identityService.introspect(token)
-                .flatMap(introspectResponse -> {
-                    if (introspectResponse.getResult() != null && introspectResponse.getResult().isValid()) {
+        // Verify token: chữ ký + hạn dùng kiểm tra local bằng JWKS (token giả/hết hạn bị chặn mà không tốn lượt gọi),
+        // sau đó đọc trạng thái thu hồi trên Redis để loại token đã logout hoặc đã bị rotate
+        return verifyToken(token)
+                .onErrorResume(throwable -> {
+                    log.warn("❌ Token verification FAILED for {}: {}", path, throwable.getMessage());
+                    return Mono.just(false);
+                })
+                .flatMap(valid -> {
+                    if (valid) {
                         log.info("✅ Token valid, forwarding to: {}", path);
 
                         // ⭐ THÊM PHẦN NÀY: Forward Authorization header sang downstream service
@@ -96,14 +111,29 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
                         log.warn("❌ Invalid token for: {}", path);
                         return unauthenticated(exchange.getResponse());
                     }
-                })
-                .onErrorResume(throwable -> {
-                    log.error("❌ Token introspection FAILED for {}: {}", path, throwable.getMessage());
-                    log.error("Error details:", throwable);
-                    return unauthenticated(exchange.getResponse());
                 });
     }
 
+    private Mono<Boolean> verifyToken(String token) {
+        Mono<Jwt> verified = jwtDecoder.decode(token);
+        if (!checkRevocation) {
+            return verified.thenReturn(true);
+        }
+        return verified.flatMap(jwt -> tokenRevocationService.isActive(jwt)
+                .onErrorResume(throwable -> {
+                    // Redis lỗi: hỏi identity-service (introspect gom batch) thay vì cho qua hay chặn hết
+                    log.warn("Cannot read token revocation state, falling back to introspect: {}",
+                            throwable.getMessage());
+                    return introspect(token);
+                }));
+    }
+
+    private Mono<Boolean> introspect(String token) {
+        return identityService.introspect(token)
+                .map(introspectResponse -> introspectResponse.getResult() != null
+                        && introspectResponse.getResult().isValid());
+    }
+
     @Override
     public int getOrder() {
         return -1;
@@ -7,6 +7,10 @@ import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.reactive.CorsWebFilter;
 import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
@@ -22,6 +26,9 @@ public class WebClientConfiguration {
     @Value("${app.services.identity}")
     private String identityServiceUrl;
 
+    @Value("${app.jwt.jwks-uri}")
+    private String jwkSetUri;
+
     @Value("${app.services.chat}")
     private String chatServiceUrl;
 
@@ -55,6 +62,18 @@ public class WebClientConfiguration {
         return httpServiceProxyFactory.createClient(IdentityClient.class);
     }
 
+    // Verify JWT ngay tại gateway bằng JWKS của identity-service; JWK Set được cache,
+    // chỉ tải lại (non-blocking qua WebClient) khi gặp kid mới
+    @Bean
+    ReactiveJwtDecoder reactiveJwtDecoder(WebClient webClient) {
+        NimbusReactiveJwtDecoder decoder = NimbusReactiveJwtDecoder.withJwkSetUri(jwkSetUri)
+                .jwsAlgorithm(SignatureAlgorithm.RS256)
+                .webClient(webClient)
+                .build();
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer("Blur.vn"));
+        return decoder;
+    }
+
     @Bean
     @Order(-2)
     CorsWebFilter corsWebFilter() {
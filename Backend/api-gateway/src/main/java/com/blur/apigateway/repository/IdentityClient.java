@@ -1,6 +1,7 @@
 package com.blur.apigateway.repository;
 
 
+import com.blur.apigateway.dto.request.IntrospectBatchRequest;
 import com.blur.apigateway.dto.request.IntrospectRequest;
 import com.blur.apigateway.dto.response.ApiResponse;
 import com.blur.apigateway.dto.response.IntrospectResponse;
@@ -9,7 +10,12 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.service.annotation.PostExchange;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 public interface IdentityClient {
     @PostExchange(url = "/auth/introspect", contentType = MediaType.APPLICATION_JSON_VALUE)
     Mono<ApiResponse<IntrospectResponse>> introspect(@RequestBody IntrospectRequest request);
+
+    @PostExchange(url = "/auth/introspect/batch", contentType = MediaType.APPLICATION_JSON_VALUE)
+    Mono<ApiResponse<List<IntrospectResponse>>> introspectBatch(@RequestBody IntrospectBatchRequest request);
 }
@@ -1,22 +1,97 @@
 package com.blur.apigateway.service;
 
-import com.blur.apigateway.dto.request.IntrospectRequest;
+import com.blur.apigateway.dto.request.IntrospectBatchRequest;
 import com.blur.apigateway.dto.response.ApiResponse;
 import com.blur.apigateway.dto.response.IntrospectResponse;
 import com.blur.apigateway.repository.IdentityClient;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Gom các introspect đồng thời trong một cửa sổ vài ms thành một lần gọi POST /auth/introspect/batch;
+// các request cùng token (nhiều API call song song của cùng một user) dùng chung một kết quả
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class IdentityService {
+    private static final int MAX_BATCH_SIZE = 200;
+
     IdentityClient identityClient;
+    Map<String, Sinks.One<IntrospectResponse>> pending = new ConcurrentHashMap<>();
+    AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    @NonFinal
+    @Value("${app.introspect-batch.window-ms:3}")
+    long windowMs;
+
+    @NonFinal
+    @Value("${app.introspect-batch.timeout-ms:3000}")
+    long timeoutMs;
 
     public Mono<ApiResponse<IntrospectResponse>> introspect(String token) {
-        return identityClient.introspect(IntrospectRequest.builder().token(token).build());
+        Sinks.One<IntrospectResponse> sink = pending.computeIfAbsent(token, t -> Sinks.one());
+        if (pending.size() >= MAX_BATCH_SIZE) {
+            Schedulers.parallel().schedule(this::flush);
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            Schedulers.parallel().schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+        }
+
+        return sink.asMono()
+                .timeout(Duration.ofMillis(timeoutMs))
+                .map(result -> ApiResponse.<IntrospectResponse>builder().result(result).build());
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+
+        Map<String, Sinks.One<IntrospectResponse>> batch = new LinkedHashMap<>();
+        for (String token : List.copyOf(pending.keySet())) {
+            if (batch.size() >= MAX_BATCH_SIZE) {
+                // Phần còn lại để lượt flush sau
+                if (flushScheduled.compareAndSet(false, true)) {
+                    Schedulers.parallel().schedule(this::flush);
+                }
+                break;
+            }
+            Sinks.One<IntrospectResponse> sink = pending.remove(token);
+            if (sink != null) {
+                batch.put(token, sink);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<String> tokens = new ArrayList<>(batch.keySet());
+        identityClient.introspectBatch(IntrospectBatchRequest.builder().tokens(tokens).build())
+                .subscribe(response -> {
+                    List<IntrospectResponse> results = response.getResult();
+                    for (int i = 0; i < tokens.size(); i++) {
+                        IntrospectResponse result = results != null && i < results.size()
+                                ? results.get(i)
+                                : IntrospectResponse.builder().valid(false).build();
+                        batch.get(tokens.get(i)).tryEmitValue(result);
+                    }
+                }, error -> {
+                    log.warn("Batch introspection failed for {} tokens: {}", tokens.size(), error.getMessage());
+                    batch.values().forEach(sink -> sink.tryEmitError(error));
+                });
     }
 }
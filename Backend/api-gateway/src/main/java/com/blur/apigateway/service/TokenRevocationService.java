@@ -0,0 +1,40 @@
+package com.blur.apigateway.service;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+// Kiểm tra thu hồi token ngay trên Redis mà identity-service ghi (cùng key với TokenFamilyService và
+// RevokedTokenService bên đó), nên token hợp lệ không cần một lượt introspect sang identity-service
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TokenRevocationService {
+    private static final String FAMILY_KEY_PREFIX = "identity:token-family:";
+    private static final String CURRENT_FIELD = "current";
+    private static final String REVOKED_KEY_PREFIX = "identity:revoked-token:";
+    private static final String FAMILY_CLAIM = "fid";
+
+    ReactiveStringRedisTemplate redisTemplate;
+
+    // Token có family phải là jti hiện tại của family (chưa rotate, chưa logout);
+    // token phát hành trước khi có family chỉ cần không nằm trong danh sách thu hồi
+    public Mono<Boolean> isActive(Jwt jwt) {
+        String jti = jwt.getId();
+        if (jti == null) {
+            return Mono.just(false);
+        }
+        String familyId = jwt.getClaimAsString(FAMILY_CLAIM);
+        if (familyId != null) {
+            return redisTemplate.opsForHash()
+                    .get(FAMILY_KEY_PREFIX + familyId, CURRENT_FIELD)
+                    .map(jti::equals)
+                    .defaultIfEmpty(false);
+        }
+        return redisTemplate.hasKey(REVOKED_KEY_PREFIX + jti).map(revoked -> !revoked);
+    }
+}
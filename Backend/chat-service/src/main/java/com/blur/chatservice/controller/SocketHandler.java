@@ -7,8 +7,12 @@ import java.util.stream.Collectors;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
 import org.springframework.stereotype.Component;
 
+import com.blur.chatservice.configuration.CustomJwtDecoder;
 import com.blur.chatservice.dto.request.ChatMessageRequest;
 import com.blur.chatservice.dto.response.ChatMessageResponse;
 import com.blur.chatservice.entity.CallSession;
@@ -22,8 +26,8 @@ import com.blur.chatservice.exception.ErrorCode;
 import com.blur.chatservice.repository.ConversationRepository;
 import com.blur.chatservice.service.CallService;
 import com.blur.chatservice.service.ChatMessageService;
-import com.blur.chatservice.service.IdentityService;
 import com.blur.chatservice.service.RedisCacheService;
+import com.blur.chatservice.service.TokenRevocationService;
 import com.blur.chatservice.service.WebsocketSessionService;
 import com.corundumstudio.socketio.AckRequest;
 import com.corundumstudio.socketio.SocketIOClient;
@@ -32,6 +36,7 @@ import com.corundumstudio.socketio.SocketIOServer;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 
 /**
  * Optimized SocketHandler with Redis Cache
@@ -46,16 +51,22 @@ import lombok.experimental.FieldDefaults;
 public class SocketHandler {
 
     SocketIOServer socketIOServer;
-    IdentityService identityService;
+    CustomJwtDecoder customJwtDecoder;
     WebsocketSessionService websocketSessionService;
     ChatMessageService chatMessageService;
     ConversationRepository conversationRepository;
     CallService callService;
     RedisCacheService redisCacheService;
+    TokenRevocationService tokenRevocationService;
 
     static final long DUPLICATE_THRESHOLD = 3000; // 3 seconds
     static final long SESSION_TTL = 7200; // 2 hours in seconds
 
+    // After local verification, reject tokens that were logged out or rotated, read from identity's Redis state
+    @NonFinal
+    @Value("${app.auth.check-revocation:true}")
+    boolean checkRevocation;
+
     @PostConstruct
     public void startServer() {
         socketIOServer.addConnectListener(this::handleConnect);
@@ -93,15 +104,17 @@ public class SocketHandler {
                 throw new AppException(ErrorCode.TOKEN_REQUIRED);
             }
 
-            var introspectRes = identityService.introspect(com.blur.chatservice.dto.request.IntrospectRequest.builder()
-                    .token(token)
-                    .build());
-
-            if (!introspectRes.isValid()) {
+            Jwt jwt;
+            try {
+                jwt = customJwtDecoder.decode(token);
+            } catch (JwtException e) {
                 throw new AppException(ErrorCode.INVALID_TOKEN);
             }
+            String userId = jwt.getSubject();
 
-            String userId = introspectRes.getUserId();
+            if (checkRevocation && !tokenRevocationService.isActive(jwt, token)) {
+                throw new AppException(ErrorCode.INVALID_TOKEN);
+            }
             String sessionId = client.getSessionId().toString();
 
             client.set("userId", userId);
@@ -0,0 +1,24 @@
+package com.blur.chatservice.dto.event;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ProfileUpdatedEvent {
+    String profileId;
+    String userId;
+    String username;
+    String firstName;
+    String lastName;
+    String imageUrl;
+    Instant updatedAt;
+}
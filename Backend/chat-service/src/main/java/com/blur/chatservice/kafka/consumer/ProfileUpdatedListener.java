@@ -0,0 +1,67 @@
+package com.blur.chatservice.kafka.consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import com.blur.chatservice.dto.event.ProfileUpdatedEvent;
+import com.blur.chatservice.entity.ChatMessage;
+import com.blur.chatservice.entity.Conversation;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the participant copies stored in conversations and messages in sync with profile-service,
+ * so chat can build senders and conversation names from local data.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ProfileUpdatedListener {
+    MongoTemplate mongoTemplate;
+    ObjectMapper objectMapper;
+
+    @KafkaListener(topics = "profile-updated-events", groupId = "chat-service")
+    public void listen(ConsumerRecord<String, String> record) throws JsonProcessingException {
+        ProfileUpdatedEvent event = objectMapper.readValue(record.value(), ProfileUpdatedEvent.class);
+        String userId = event.getUserId();
+        if (userId == null) {
+            return;
+        }
+
+        long conversations = mongoTemplate
+                .updateMulti(
+                        Query.query(Criteria.where("participants.userId").is(userId)),
+                        new Update()
+                                .set("participants.$[p].username", event.getUsername())
+                                .set("participants.$[p].firstName", event.getFirstName())
+                                .set("participants.$[p].lastName", event.getLastName())
+                                .set("participants.$[p].avatar", event.getImageUrl())
+                                .filterArray(Criteria.where("p.userId").is(userId)),
+                        Conversation.class)
+                .getModifiedCount();
+
+        long messages = mongoTemplate
+                .updateMulti(
+                        Query.query(Criteria.where("sender.userId").is(userId)),
+                        new Update()
+                                .set("sender.username", event.getUsername())
+                                .set("sender.firstName", event.getFirstName())
+                                .set("sender.lastName", event.getLastName())
+                                .set("sender.avatar", event.getImageUrl()),
+                        ChatMessage.class)
+                .getModifiedCount();
+
+        log.info("Profile {} updated: {} conversations, {} messages refreshed", userId, conversations, messages);
+    }
+}
@@ -1,6 +1,7 @@
 package com.blur.chatservice.repository.httpclient;
 
 import java.text.ParseException;
+import java.util.List;
 
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.MediaType;
@@ -9,6 +10,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 
 import com.blur.chatservice.configuration.AuthenticationRequestInterceptor;
 import com.blur.chatservice.dto.ApiResponse;
+import com.blur.chatservice.dto.request.IntrospectBatchRequest;
 import com.blur.chatservice.dto.request.IntrospectRequest;
 import com.blur.chatservice.dto.response.IntrospecResponse;
 import com.nimbusds.jose.JOSEException;
@@ -21,4 +23,7 @@ public interface IdentityClient {
     @PostMapping(value = "/auth/introspect", produces = MediaType.APPLICATION_JSON_VALUE)
     ApiResponse<IntrospecResponse> introspect(@RequestBody IntrospectRequest request)
             throws ParseException, JOSEException;
+
+    @PostMapping(value = "/auth/introspect/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+    ApiResponse<List<IntrospecResponse>> introspectBatch(@RequestBody IntrospectBatchRequest request);
 }
@@ -0,0 +1,41 @@
+package com.blur.chatservice.repository.httpclient;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.stereotype.Component;
+
+import com.blur.chatservice.dto.response.UserProfileResponse;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+// Resolves a known set of userIds with POST /internal/users/batch, split into chunks
+// so a single request never exceeds the batch limit of profile-service
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ProfileBatchClient {
+    private static final int MAX_BATCH_SIZE = 200;
+
+    ProfileClient profileClient;
+
+    // Users without a profile are simply absent from the returned map
+    public Map<String, UserProfileResponse> getProfiles(Collection<String> userIds) {
+        List<String> ids = userIds.stream().filter(Objects::nonNull).distinct().toList();
+        Map<String, UserProfileResponse> result = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += MAX_BATCH_SIZE) {
+            List<String> chunk = ids.subList(from, Math.min(from + MAX_BATCH_SIZE, ids.size()));
+            Map<String, UserProfileResponse> profiles =
+                    profileClient.getProfiles(chunk).getResult();
+            if (profiles != null) {
+                result.putAll(profiles);
+            }
+        }
+        return result;
+    }
+}
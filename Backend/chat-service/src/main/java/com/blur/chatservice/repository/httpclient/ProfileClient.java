@@ -1,8 +1,13 @@
 package com.blur.chatservice.repository.httpclient;
 
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
 import com.blur.chatservice.dto.ApiResponse;
 import com.blur.chatservice.dto.response.UserProfileResponse;
@@ -12,6 +17,9 @@ public interface ProfileClient {
     @GetMapping("/internal/users/{userId}")
     ApiResponse<UserProfileResponse> getProfile(@PathVariable("userId") String userId);
 
+    @PostMapping("/internal/users/batch")
+    ApiResponse<Map<String, UserProfileResponse>> getProfiles(@RequestBody List<String> userIds);
+
     @GetMapping("/user/{profileId}")
     ApiResponse<UserProfileResponse> getProfileById(@PathVariable("profileId") String profileId);
 }
@@ -88,23 +88,16 @@ public class ChatMessageService {
             }
         }
 
-        var userResponse = profileClient.getProfile(userId);
-        if (userResponse == null || userResponse.getResult() == null) {
-            throw new AppException(ErrorCode.USER_PROFILE_NOT_FOUND);
-        }
-
         var conversation = conversationRepository
                 .findById(request.getConversationId())
                 .orElseThrow(() -> new AppException(ErrorCode.CONVERSATION_NOT_FOUND));
 
-        boolean isParticipant = conversation.getParticipants().stream()
-                .anyMatch(p -> userResponse.getResult().getUserId().equals(p.getUserId()));
-
-        if (!isParticipant) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-
-        var userInfo = userResponse.getResult();
+        // Participant info is kept in sync by profile-updated events, so the sender is taken from the
+        // conversation instead of calling profile-service for every message
+        ParticipantInfo sender = conversation.getParticipants().stream()
+                .filter(p -> userId.equals(p.getUserId()))
+                .findFirst()
+                .orElseThrow(() -> new AppException(ErrorCode.UNAUTHORIZED));
 
         ChatMessage chatMessage = ChatMessage.builder()
                 .conversationId(request.getConversationId())
@@ -112,14 +105,14 @@ public class ChatMessageService {
                 .attachments(request.getAttachments())
                 .messageType(determineMessageType(request))
                 .sender(ParticipantInfo.builder()
-                        .userId(userInfo.getUserId())
-                        .username(userInfo.getUsername())
-                        .firstName(userInfo.getFirstName())
-                        .lastName(userInfo.getLastName())
-                        .avatar(userInfo.getImageUrl())
+                        .userId(sender.getUserId())
+                        .username(sender.getUsername())
+                        .firstName(sender.getFirstName())
+                        .lastName(sender.getLastName())
+                        .avatar(sender.getAvatar())
                         .build())
                 .createdDate(Instant.now())
-                .readBy(List.of(userInfo.getUserId()))
+                .readBy(List.of(sender.getUserId()))
                 .build();
 
         chatMessage = chatMessageRepository.save(chatMessage);
@@ -135,7 +128,7 @@ public class ChatMessageService {
                 // 1. Gọi AI Service
                 AiChatRequest aiReq = new AiChatRequest();
                 aiReq.setConversationId(conversation.getAiConversationId());
-                aiReq.setUserId(userInfo.getUserId());
+                aiReq.setUserId(sender.getUserId());
                 aiReq.setMessage(request.getMessage());
 
                 AiChatResponse aiRes = aiServiceClient.chat(aiReq);
@@ -164,7 +157,7 @@ public class ChatMessageService {
                                     .avatar(null)
                                     .build())
                             .createdDate(Instant.now())
-                            .readBy(List.of(userInfo.getUserId()))
+                            .readBy(List.of(sender.getUserId()))
                             .build();
 
                     // 4. Lưu vào database
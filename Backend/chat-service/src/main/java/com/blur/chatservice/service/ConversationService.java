@@ -22,6 +22,7 @@ import com.blur.chatservice.exception.ErrorCode;
 import com.blur.chatservice.mapper.ConversationMapper;
 import com.blur.chatservice.repository.ChatMessageRepository;
 import com.blur.chatservice.repository.ConversationRepository;
+import com.blur.chatservice.repository.httpclient.ProfileBatchClient;
 import com.blur.chatservice.repository.httpclient.ProfileClient;
 
 import lombok.AccessLevel;
@@ -35,6 +36,7 @@ public class ConversationService {
 
     ConversationMapper conversationMapper;
     ProfileClient profileClient;
+    ProfileBatchClient profileBatchClient;
     ConversationRepository conversationRepository;
     ChatMessageRepository chatMessageRepository; // ✅ ADD THIS
     RedisCacheService redisCacheService;
@@ -61,17 +63,16 @@ public class ConversationService {
     // @CacheEvict disabled to prevent Redis serialization errors
     public ConversationResponse createConversation(ConversationRequest request) {
         String userId = SecurityContextHolder.getContext().getAuthentication().getName();
-        var userInfoResponse = profileClient.getProfile(userId);
-        var participantInfoResponse =
-                profileClient.getProfile(request.getParticipantIds().get(0));
+        String participantId = request.getParticipantIds().get(0);
+        // Fetch both profiles in a single batch call
+        var profiles = profileBatchClient.getProfiles(List.of(userId, participantId));
+        var userInfo = profiles.get(userId);
+        var participantInfo = profiles.get(participantId);
 
-        if (Objects.isNull(userInfoResponse) || Objects.isNull(participantInfoResponse)) {
+        if (Objects.isNull(userInfo) || Objects.isNull(participantInfo)) {
             throw new AppException(ErrorCode.USER_PROFILE_NOT_FOUND);
         }
 
-        var userInfo = userInfoResponse.getResult();
-        var participantInfo = participantInfoResponse.getResult();
-
         List<String> userIds = new ArrayList<>();
         userIds.add(userId);
         userIds.add(participantInfo.getUserId());
@@ -133,16 +134,13 @@ public class ConversationService {
     private ConversationResponse toConversationResponseWithLastMessage(Conversation conversation) {
         String currentUserId =
                 SecurityContextHolder.getContext().getAuthentication().getName();
-        var profileResponse = profileClient.getProfile(currentUserId);
 
         // Build base response using mapper
         ConversationResponse response = conversationMapper.toConversationResponse(conversation);
 
         // Set conversation name and avatar
         conversation.getParticipants().stream()
-                .filter(participantInfo -> !participantInfo
-                        .getUserId()
-                        .equals(profileResponse.getResult().getUserId()))
+                .filter(participantInfo -> !participantInfo.getUserId().equals(currentUserId))
                 .findFirst()
                 .ifPresent(participantInfo -> {
                     response.setConversationName(participantInfo.getFirstName() + " " + participantInfo.getLastName());
@@ -172,14 +170,11 @@ public class ConversationService {
     private ConversationResponse toConversationResponse(Conversation conversation) {
         String currentUserId =
                 SecurityContextHolder.getContext().getAuthentication().getName();
-        var profileResponse = profileClient.getProfile(currentUserId);
 
         ConversationResponse response = conversationMapper.toConversationResponse(conversation);
 
         conversation.getParticipants().stream()
-                .filter(participantInfo -> !participantInfo
-                        .getUserId()
-                        .equals(profileResponse.getResult().getUserId()))
+                .filter(participantInfo -> !participantInfo.getUserId().equals(currentUserId))
                 .findFirst()
                 .ifPresent(participantInfo -> {
                     response.setConversationName(participantInfo.getFirstName() + " " + participantInfo.getLastName());
@@ -1,42 +1,128 @@
 package com.blur.chatservice.service;
 
-import java.text.ParseException;
-import java.util.Objects;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.blur.chatservice.dto.request.IntrospectBatchRequest;
 import com.blur.chatservice.dto.request.IntrospectRequest;
 import com.blur.chatservice.dto.response.IntrospecResponse;
 import com.blur.chatservice.repository.httpclient.IdentityClient;
-import com.nimbusds.jose.JOSEException;
 
 import feign.FeignException;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
 
+// Reconnect hàng loạt (deploy, mất mạng) tạo rất nhiều introspect cùng lúc: gom trong một cửa sổ ngắn
+// thành một lần gọi POST /auth/introspect/batch, cùng token thì dùng chung kết quả
 @Slf4j
 @Service
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class IdentityService {
+    private static final int MAX_BATCH_SIZE = 200;
+
     IdentityClient identityClient;
+    Map<String, CompletableFuture<IntrospecResponse>> pending = new ConcurrentHashMap<>();
+    AtomicBoolean flushScheduled = new AtomicBoolean();
+    ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "introspect-batch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @NonFinal
+    @Value("${app.introspect-batch.window-ms:5}")
+    long windowMs;
+
+    @NonFinal
+    @Value("${app.introspect-batch.timeout-ms:3000}")
+    long timeoutMs;
 
     public IntrospecResponse introspect(IntrospectRequest request) {
+        String token = request.getToken();
+        CompletableFuture<IntrospecResponse> future = pending.computeIfAbsent(token, t -> new CompletableFuture<>());
+        if (pending.size() >= MAX_BATCH_SIZE) {
+            scheduler.execute(this::flush);
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+        }
+
         try {
-            var res = identityClient.introspect(request).getResult();
-            if (Objects.isNull(res)) {
-                return IntrospecResponse.builder().valid(false).build();
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Token introspection failed: {}", e.getMessage());
+            return invalid();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return invalid();
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+
+        Map<String, CompletableFuture<IntrospecResponse>> batch = new LinkedHashMap<>();
+        for (String token : List.copyOf(pending.keySet())) {
+            if (batch.size() >= MAX_BATCH_SIZE) {
+                // Phần còn lại để lượt flush sau
+                if (flushScheduled.compareAndSet(false, true)) {
+                    scheduler.execute(this::flush);
+                }
+                break;
             }
-            return res;
-        } catch (FeignException e) {
-            return IntrospecResponse.builder().valid(false).build();
+            CompletableFuture<IntrospecResponse> future = pending.remove(token);
+            if (future != null) {
+                batch.put(token, future);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
 
-        } catch (ParseException e) {
-            throw new RuntimeException(e);
-        } catch (JOSEException e) {
-            throw new RuntimeException(e);
+        List<String> tokens = new ArrayList<>(batch.keySet());
+        try {
+            List<IntrospecResponse> results = identityClient
+                    .introspectBatch(
+                            IntrospectBatchRequest.builder().tokens(tokens).build())
+                    .getResult();
+            for (int i = 0; i < tokens.size(); i++) {
+                IntrospecResponse result = results != null && i < results.size() ? results.get(i) : null;
+                batch.get(tokens.get(i)).complete(result != null ? result : invalid());
+            }
+        } catch (FeignException e) {
+            // Identity-service từ chối / lỗi: coi như token không hợp lệ, giống introspect đơn lẻ trước đây
+            log.warn("Batch introspection failed for {} tokens: {}", tokens.size(), e.getMessage());
+            batch.values().forEach(future -> future.complete(invalid()));
+        } catch (Exception e) {
+            log.warn("Batch introspection failed for {} tokens: {}", tokens.size(), e.getMessage());
+            batch.values().forEach(future -> future.completeExceptionally(e));
         }
     }
+
+    private IntrospecResponse invalid() {
+        return IntrospecResponse.builder().valid(false).build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
 }
@@ -0,0 +1,164 @@
+package com.blur.chatservice.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Presence shared with notification-service.
+ * Each user is a ZSET "presence:user:{userId}" whose members are "{service}:{connectionId}" scored by
+ * expiry time; a periodic heartbeat extends the connections still open on this instance.
+ * A user is online while at least one connection has not expired.
+ * isOnline/getPresence answer "online on any channel"; notification-service decides STOMP push vs. email with
+ * isReachable, which only counts its own "notification:" members, so a chat socket never suppresses an email.
+ *
+ * The services share no common module, so notification-service keeps its own copy
+ * (com.blur.notificationservice.service.PresenceService). Both copies must agree on the key, member format,
+ * score and app.presence.ttl-ms; change them together.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PresenceService {
+    private static final String PRESENCE_PREFIX = "presence:user:";
+    private static final String SERVICE_NAME = "chat";
+
+    StringRedisTemplate stringRedisTemplate;
+
+    // connectionId -> userId for connections open on this instance
+    Map<String, String> localConnections = new ConcurrentHashMap<>();
+
+    @NonFinal
+    @Value("${app.presence.ttl-ms:90000}")
+    long ttlMillis;
+
+    public void connect(String userId, String connectionId) {
+        if (userId == null || connectionId == null) {
+            return;
+        }
+        localConnections.put(connectionId, userId);
+        try {
+            String key = PRESENCE_PREFIX + userId;
+            stringRedisTemplate
+                    .opsForZSet()
+                    .add(key, member(connectionId), System.currentTimeMillis() + ttlMillis);
+            stringRedisTemplate.expire(key, ttlMillis, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.error("Cannot register presence for {}: {}", userId, e.getMessage());
+        }
+    }
+
+    public void disconnect(String userId, String connectionId) {
+        if (connectionId == null) {
+            return;
+        }
+        String owner = localConnections.remove(connectionId);
+        String resolvedUserId = userId != null ? userId : owner;
+        if (resolvedUserId == null) {
+            return;
+        }
+        try {
+            stringRedisTemplate.opsForZSet().remove(PRESENCE_PREFIX + resolvedUserId, member(connectionId));
+        } catch (Exception e) {
+            log.error("Cannot remove presence for {}: {}", resolvedUserId, e.getMessage());
+        }
+    }
+
+    public boolean isOnline(String userId) {
+        if (userId == null) {
+            return false;
+        }
+        try {
+            Long alive = stringRedisTemplate
+                    .opsForZSet()
+                    .count(PRESENCE_PREFIX + userId, System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+            return alive != null && alive > 0;
+        } catch (Exception e) {
+            log.error("Cannot check presence for {}: {}", userId, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Answers presence for many users with a single pipelined round-trip.
+     */
+    public Map<String, Boolean> getPresence(Collection<String> userIds) {
+        List<String> ids = new ArrayList<>(userIds);
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        if (ids.isEmpty()) {
+            return result;
+        }
+        long now = System.currentTimeMillis();
+        try {
+            List<Object> counts = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) throws DataAccessException {
+                    for (String id : ids) {
+                        operations.opsForZSet().count(PRESENCE_PREFIX + id, now, Double.POSITIVE_INFINITY);
+                    }
+                    return null;
+                }
+            });
+            for (int i = 0; i < ids.size(); i++) {
+                Object count = counts.get(i);
+                result.put(ids.get(i), count instanceof Long alive && alive > 0);
+            }
+        } catch (Exception e) {
+            log.error("Cannot check presence for {} users: {}", ids.size(), e.getMessage());
+            ids.forEach(id -> result.put(id, false));
+        }
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${app.presence.heartbeat-ms:30000}")
+    public void heartbeat() {
+        if (localConnections.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long expiresAt = now + ttlMillis;
+        Map<String, String> snapshot = Map.copyOf(localConnections);
+        try {
+            stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) throws DataAccessException {
+                    snapshot.forEach((connectionId, userId) -> {
+                        String key = PRESENCE_PREFIX + userId;
+                        operations.opsForZSet().add(key, member(connectionId), expiresAt);
+                        // Drop connections left behind by instances that died
+                        operations.opsForZSet().removeRangeByScore(key, Double.NEGATIVE_INFINITY, now);
+                        operations.expire(key, ttlMillis, TimeUnit.MILLISECONDS);
+                    });
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            log.error("Presence heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    private String member(String connectionId) {
+        return SERVICE_NAME + ":" + connectionId;
+    }
+}
@@ -25,7 +25,6 @@ public class RedisCacheService {
     private static final String USER_CALL_PREFIX = "chat-service:user:call:";
     private static final String CALL_HISTORY_PREFIX = "chat-service:call:history:";
     private static final String MISSED_CALLS_PREFIX = "chat-service:call:missed:";
-    private static final String USER_STATUS_PREFIX = "chat-service:user:status:";
     private static final String MESSAGE_PREFIX = "chat-service:message:";
     private static final String CONVERSATION_PREFIX = "chat-service:conversation:";
     private static final String UNREAD_COUNT_PREFIX = "chat-service:unread:";
@@ -160,27 +159,6 @@ public class RedisCacheService {
         }
     }
 
-    // ==================== USER STATUS ====================
-
-    public void setUserOnlineStatus(String userId, boolean isOnline) {
-        try {
-            String key = USER_STATUS_PREFIX + userId;
-            redisTemplate.opsForValue().set(key, isOnline ? "online" : "offline", 5, TimeUnit.MINUTES);
-        } catch (Exception e) {
-            // Silent fail
-        }
-    }
-
-    public boolean isUserOnline(String userId) {
-        try {
-            String key = USER_STATUS_PREFIX + userId;
-            Object status = redisTemplate.opsForValue().get(key);
-            return "online".equals(status);
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
     // ==================== MESSAGE CACHE ====================
 
     public void cacheMessage(String messageId, Object message, long ttlMinutes) {
@@ -0,0 +1,59 @@
+package com.blur.chatservice.service;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Service;
+
+import com.blur.chatservice.dto.request.IntrospectRequest;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Checks token revocation against the Redis state identity-service writes (same keys as its
+ * TokenFamilyService and RevokedTokenService), so a valid token needs no introspection call.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TokenRevocationService {
+    private static final String FAMILY_KEY_PREFIX = "identity:token-family:";
+    private static final String CURRENT_FIELD = "current";
+    private static final String REVOKED_KEY_PREFIX = "identity:revoked-token:";
+    private static final String FAMILY_CLAIM = "fid";
+
+    StringRedisTemplate stringRedisTemplate;
+    IdentityService identityService;
+
+    /**
+     * A token with a family must be the family's current jti (not rotated, not logged out); tokens issued
+     * before families existed only need to be absent from the revocation list. Falls back to introspection
+     * when Redis is unavailable rather than letting the token through.
+     */
+    public boolean isActive(Jwt jwt, String token) {
+        try {
+            return isActiveInRedis(jwt);
+        } catch (Exception e) {
+            log.warn("Cannot read token revocation state, falling back to introspect: {}", e.getMessage());
+            return identityService
+                    .introspect(IntrospectRequest.builder().token(token).build())
+                    .isValid();
+        }
+    }
+
+    private boolean isActiveInRedis(Jwt jwt) {
+        String jti = jwt.getId();
+        if (jti == null) {
+            return false;
+        }
+        String familyId = jwt.getClaimAsString(FAMILY_CLAIM);
+        if (familyId != null) {
+            Object current = stringRedisTemplate.opsForHash().get(FAMILY_KEY_PREFIX + familyId, CURRENT_FIELD);
+            return jti.equals(current);
+        }
+        return !Boolean.TRUE.equals(stringRedisTemplate.hasKey(REVOKED_KEY_PREFIX + jti));
+    }
+}
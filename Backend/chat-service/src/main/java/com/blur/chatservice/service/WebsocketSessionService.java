@@ -21,6 +21,7 @@ import lombok.extern.slf4j.Slf4j;
 public class WebsocketSessionService {
     WebsocketSessionRepository websocketSessionRepository;
     RedisCacheService redisCacheService;
+    PresenceService presenceService;
 
     @Transactional
     public WebsocketSession createSession(String sessionId, String userId) {
@@ -30,7 +31,7 @@ public class WebsocketSessionService {
                 .createdAt(Instant.now())
                 .build();
         redisCacheService.cacheSession(sessionId, userId, 120);
-        redisCacheService.setUserOnlineStatus(userId, true);
+        presenceService.connect(userId, sessionId);
         return websocketSessionRepository.save(session);
     }
 
@@ -42,19 +43,13 @@ public class WebsocketSessionService {
         // remove from cache
         if (userId != null) {
             redisCacheService.removeSession(sessionId, userId);
-
-            // update online status if no mo sessions
-            if (redisCacheService.getUserActiveSessionCount(userId) == 0) {
-                redisCacheService.setUserOnlineStatus(userId, false);
-            }
         }
+        // user stays online while another tab/device still holds a connection
+        presenceService.disconnect(userId, sessionId);
     }
 
     public boolean isUserOnline(String userId) {
-        if (redisCacheService.isUserOnline(userId)) {
-            return true;
-        }
-        return !websocketSessionRepository.findByUserId(userId).isEmpty();
+        return presenceService.isOnline(userId);
     }
 
     public List<WebsocketSession> getUserSessions(String userId) {
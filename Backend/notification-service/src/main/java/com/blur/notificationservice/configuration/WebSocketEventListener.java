@@ -1,6 +1,6 @@
 package com.blur.notificationservice.configuration;
 
-import com.blur.notificationservice.service.RedisService;
+import com.blur.notificationservice.service.PresenceService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
@@ -14,7 +14,7 @@ import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 @RequiredArgsConstructor
 public class WebSocketEventListener {
 
-    private final RedisService redisService;
+    private final PresenceService presenceService;
 
     @EventListener
     public void handleWebSocketConnectListener(SessionConnectEvent event) {
@@ -32,7 +32,7 @@ public class WebSocketEventListener {
         }
 
         if (userId != null) {
-            redisService.setUserOnline(userId);
+            presenceService.connect(userId, accessor.getSessionId());
             log.info("✅ WS CONNECT: user {} marked ONLINE in Redis", userId);
         } else {
             log.warn("⚠️ WS CONNECT: userId is null, cannot mark online");
@@ -43,15 +43,16 @@ public class WebSocketEventListener {
     public void handleWebSocketDisconnectListener(SessionDisconnectEvent event) {
         StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
 
-        String userId = (String) accessor.getSessionAttributes().get("userId");
+        String userId = accessor.getSessionAttributes() != null
+                ? (String) accessor.getSessionAttributes().get("userId")
+                : null;
         if (userId == null && accessor.getUser() != null) {
             userId = accessor.getUser().getName();
         }
 
-        if (userId != null) {
-            redisService.setUserOffline(userId);
-            log.info("🚪 WS DISCONNECT: user {} marked OFFLINE in Redis", userId);
-        } else {
+        // Chỉ bỏ kết nối này, user vẫn online nếu còn tab/thiết bị khác
+        presenceService.disconnect(userId, event.getSessionId());
+        if (userId == null) {
             log.warn("⚠️ WS DISCONNECT: userId is null (no Principal & no session attr)");
         }
     }
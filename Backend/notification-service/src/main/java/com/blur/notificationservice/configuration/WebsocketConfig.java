@@ -1,10 +1,11 @@
 package com.blur.notificationservice.configuration;
 
-import com.blur.notificationservice.service.RedisService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
@@ -33,11 +34,45 @@ import java.util.Map;
 public class WebsocketConfig implements WebSocketMessageBrokerConfigurer {
     JwtHandshakeInterceptor jwtHandshakeInterceptor;
     private final JwtDecoder jwtDecoder;
-    private final RedisService redisService;
+
+    @NonFinal
+    @Value("${app.websocket.relay.enabled:false}")
+    boolean relayEnabled;
+
+    @NonFinal
+    @Value("${app.websocket.relay.host:localhost}")
+    String relayHost;
+
+    @NonFinal
+    @Value("${app.websocket.relay.port:61613}")
+    int relayPort;
+
+    @NonFinal
+    @Value("${app.websocket.relay.login:guest}")
+    String relayLogin;
+
+    @NonFinal
+    @Value("${app.websocket.relay.passcode:guest}")
+    String relayPasscode;
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry){
-        registry.enableSimpleBroker("/topic", "/user");
+        if (relayEnabled) {
+            // Broker ngoài (RabbitMQ/ActiveMQ STOMP) để nhiều replica cùng giao được message tới user.
+            // User registry và các user destination chưa resolve được broadcast qua broker tới mọi instance.
+            log.info("🔁 Using STOMP broker relay {}:{}", relayHost, relayPort);
+            registry.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/simp-user-registry");
+        } else {
+            registry.enableSimpleBroker("/topic", "/queue", "/user");
+        }
         registry.setApplicationDestinationPrefixes("/app");
         registry.setUserDestinationPrefix("/user");
     }
@@ -2,7 +2,7 @@ package com.blur.notificationservice.controller;
 
 import com.blur.notificationservice.dto.event.Event;
 import com.blur.notificationservice.dto.response.ApiResponse;
-import com.blur.notificationservice.entity.Notification;
+import com.blur.notificationservice.dto.response.NotificationPageResponse;
 import com.blur.notificationservice.service.NotificationService;
 import com.fasterxml.jackson.databind.ObjectMapper; // ĐỔI SANG JACKSON
 import lombok.AccessLevel;
@@ -12,8 +12,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
@@ -67,9 +65,19 @@ public class NotificationController {
 
 
     @GetMapping("/{userId}")
-    public ApiResponse<List<Notification>> getAllNotificationsByUserId(@PathVariable("userId") String userId) {
-        return ApiResponse.<List<Notification>>builder()
-                .result(notificationService.getForUser(userId))
+    public ApiResponse<NotificationPageResponse> getAllNotificationsByUserId(
+            @PathVariable("userId") String userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return ApiResponse.<NotificationPageResponse>builder()
+                .result(notificationService.getForUser(userId, cursor, limit))
+                .build();
+    }
+
+    @GetMapping("/{userId}/unread-count")
+    public ApiResponse<Long> getUnreadCount(@PathVariable("userId") String userId) {
+        return ApiResponse.<Long>builder()
+                .result(notificationService.getUnreadCount(userId))
                 .build();
     }
 
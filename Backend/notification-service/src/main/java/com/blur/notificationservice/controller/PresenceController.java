@@ -0,0 +1,33 @@
+package com.blur.notificationservice.controller;
+
+import com.blur.notificationservice.dto.response.ApiResponse;
+import com.blur.notificationservice.service.PresenceService;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/presence")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PresenceController {
+    PresenceService presenceService;
+
+    @GetMapping("/{userId}")
+    public ApiResponse<Boolean> isOnline(@PathVariable("userId") String userId) {
+        return ApiResponse.<Boolean>builder()
+                .result(presenceService.isOnline(userId))
+                .build();
+    }
+
+    @PostMapping
+    public ApiResponse<Map<String, Boolean>> getPresence(@RequestBody List<String> userIds) {
+        return ApiResponse.<Map<String, Boolean>>builder()
+                .result(presenceService.getPresence(userIds))
+                .build();
+    }
+}
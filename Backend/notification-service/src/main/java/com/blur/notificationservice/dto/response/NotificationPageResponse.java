@@ -0,0 +1,20 @@
+package com.blur.notificationservice.dto.response;
+
+import com.blur.notificationservice.entity.Notification;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class NotificationPageResponse {
+    List<Notification> items;
+    String nextCursor;
+    boolean hasNext;
+}
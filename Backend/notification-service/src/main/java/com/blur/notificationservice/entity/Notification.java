@@ -1,14 +1,24 @@
 package com.blur.notificationservice.entity;
 
 import com.blur.notificationservice.kafka.model.Type;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Document(collection = "notifications")
+@CompoundIndexes({
+        @CompoundIndex(name = "receiver_timestamp_idx", def = "{'receiverId': 1, 'timestamp': -1, '_id': -1}"),
+        @CompoundIndex(name = "receiver_read_idx", def = "{'receiverId': 1, 'read': 1}"),
+        @CompoundIndex(name = "aggregation_idx", def = "{'aggregationKey': 1, 'read': 1, 'timestamp': -1}", sparse = true)
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -35,4 +45,24 @@ public class Notification {
     Boolean read = false;
     String entityId;
     String storyId;
+    // Gộp nhiều like/reaction trên cùng một post/story thành một notification
+    String aggregationKey;
+    Integer actorCount;
+    List<NotificationActor> recentActors;
+    // Bằng aggregationKey khi nhóm còn nhận thêm actor; unique nên mỗi key chỉ có một nhóm mở
+    @JsonIgnore
+    @Indexed(unique = true, sparse = true)
+    String openGroupKey;
+    // Phần nối sau "and N others" khi nhóm có từ 2 actor
+    @JsonIgnore
+    String groupContent;
+
+    // Nội dung nhóm dựng từ actorCount lúc đọc, không lưu lại sau mỗi lần gộp
+    public String getContent() {
+        if (groupContent == null || actorCount == null || actorCount < 2) {
+            return content;
+        }
+        int others = actorCount - 1;
+        return " and " + others + (others == 1 ? " other" : " others") + groupContent;
+    }
 }
@@ -0,0 +1,16 @@
+package com.blur.notificationservice.entity;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Builder
+public class NotificationActor {
+    String senderId;
+    String senderUserId;
+    String senderName;
+    String senderImageUrl;
+}
@@ -0,0 +1,25 @@
+package com.blur.notificationservice.entity;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+// Actor đã được tính vào một nhóm notification, id = groupId:senderId nên insert trùng bị chặn bởi _id;
+// tách khỏi document notification để nhóm của post nhiều like không phình theo số actor
+@Document(collection = "notification_group_actors")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Builder
+public class NotificationGroupActor {
+    @Id
+    String id;
+    String groupId;
+    @Indexed(expireAfter = "30d")
+    LocalDateTime createdAt;
+}
@@ -0,0 +1,21 @@
+package com.blur.notificationservice.entity;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+// Mốc "đã đọc tới" của mỗi user: mọi notification có timestamp <= readUpTo được coi là đã đọc
+@Document(collection = "notification_read_states")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Builder
+public class NotificationReadState {
+    @Id
+    String receiverId;
+    LocalDateTime readUpTo;
+}
@@ -13,6 +13,8 @@ public enum ErrorCode {
     UNAUTHENTICATED(1011,"Unauthenticated",HttpStatus.UNAUTHORIZED),
     NOTIFICATION_NOT_FOUND(1012,"Notification not found",HttpStatus.NOT_FOUND),
     YOU_ARE_NOT_ALLOWED(1013,"You are not allowed",HttpStatus.UNAUTHORIZED),
+    INVALID_CURSOR(1014,"Invalid pagination cursor",HttpStatus.BAD_REQUEST),
+    BATCH_TOO_LARGE(1015,"Too many user ids in one batch",HttpStatus.BAD_REQUEST),
             ;
 
 
@@ -1,6 +1,8 @@
 package com.blur.notificationservice.kafka.consumer;
 
+import com.blur.notificationservice.dto.response.UserProfileResponse;
 import com.blur.notificationservice.kafka.handler.EventHandler;
+import com.blur.notificationservice.repository.httpclient.ProfileBatchClient;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -8,11 +10,14 @@ import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.stereotype.Component;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import jakarta.annotation.PostConstruct;
 
 @Slf4j
@@ -21,26 +26,72 @@ import jakarta.annotation.PostConstruct;
 @FieldDefaults(level = AccessLevel.PRIVATE,makeFinal = true)
 public class EventListener {
     private final List<EventHandler<?>> handlers;
+    private final ProfileBatchClient profileBatchClient;
 
     @KafkaListener(
             topics = {"user-follow-events", "user-like-events", "user-comment-events",
-                        "user-reply-comment-events","user-like-story-events","user-react-story-events"},
-            groupId = "notification-service")
-    public void listen(ConsumerRecord<String, String> record,
-                       @Header(KafkaHeaders.RECEIVED_TOPIC) String topic)
-            throws JsonProcessingException {
+                        "user-reply-comment-events","user-like-story-events","user-react-story-events",
+                        "profile-updated-events"},
+            groupId = "notification-service",
+            batch = "true")
+    public void listen(List<ConsumerRecord<String, String>> records) {
+        // Profile của mọi sender trong poll được tra bằng một lần gọi batch, sau đó từng record
+        // vẫn được xử lý riêng theo đúng thứ tự offset
+        Map<String, UserProfileResponse> profiles = prefetchProfiles(records);
 
-        String message = record.value(); // Đây là JSON string
-        log.info("📌 Received topic: {}", topic);
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, String> record = records.get(i);
+            log.info("📌 Received topic: {}", record.topic());
+            EventHandler<?> handler = findHandler(record.topic());
+            if (handler == null) {
+                log.warn("No handler found for topic: {}", record.topic());
+                continue;
+            }
+            try {
+                handler.handleEvent(record.value(), profiles);
+            } catch (Exception e) {
+                // Offset của các record đã xử lý xong được commit, chỉ record lỗi và các record sau nó bị retry
+                throw new BatchListenerFailedException("Cannot handle record from " + record.topic(), e, i);
+            }
+        }
+    }
+
+    private Map<String, UserProfileResponse> prefetchProfiles(List<ConsumerRecord<String, String>> records) {
+        Set<String> userIds = new HashSet<>();
+        for (ConsumerRecord<String, String> record : records) {
+            EventHandler<?> handler = findHandler(record.topic());
+            if (handler == null) {
+                continue;
+            }
+            try {
+                String userId = handler.profileUserId(record.value());
+                if (userId != null) {
+                    userIds.add(userId);
+                }
+            } catch (JsonProcessingException e) {
+                // Record hỏng sẽ báo lỗi đúng vị trí của nó khi xử lý
+            }
+        }
+        if (userIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        try {
+            return profileBatchClient.getProfiles(userIds);
+        } catch (Exception e) {
+            // Chưa record nào được xử lý nên retry cả poll không tạo notification trùng
+            throw new BatchListenerFailedException("Cannot load sender profiles", e, 0);
+        }
+    }
 
+    private EventHandler<?> findHandler(String topic) {
         for (EventHandler<?> handler : handlers) {
             if (handler.canHandle(topic)) {
-                handler.handleEvent(message);
-                return;
+                return handler;
             }
         }
-        log.warn("No handler found for topic: {}", topic);
+        return null;
     }
+
     @PostConstruct
     public void init() {
         log.info("✅ Loaded {} handlers:", handlers.size());
@@ -1,8 +1,21 @@
 package com.blur.notificationservice.kafka.handler;
 
+import com.blur.notificationservice.dto.response.UserProfileResponse;
 import com.fasterxml.jackson.core.JsonProcessingException;
 
+import java.util.Map;
+
 public interface EventHandler<T> {
     boolean canHandle(String topic);
     void handleEvent(String jsonEvent) throws JsonProcessingException;
+
+    // userId cần tra profile cho event này, null nếu handler không cần profile
+    default String profileUserId(String jsonEvent) throws JsonProcessingException {
+        return null;
+    }
+
+    // profiles: profile của mọi sender trong cùng poll, listener đã tra trước bằng một lần gọi batch
+    default void handleEvent(String jsonEvent, Map<String, UserProfileResponse> profiles) throws JsonProcessingException {
+        handleEvent(jsonEvent);
+    }
 }
@@ -0,0 +1,69 @@
+package com.blur.notificationservice.kafka.handler;
+
+import com.blur.notificationservice.dto.event.ProfileUpdatedEvent;
+import com.blur.notificationservice.entity.Notification;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+// Cập nhật tên/avatar đã lưu sẵn trong notification khi profile thay đổi, để không phải gọi lại profile-service khi đọc
+@RequiredArgsConstructor
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class ProfileUpdatedEventHandler implements EventHandler<ProfileUpdatedEvent> {
+    MongoTemplate mongoTemplate;
+    ObjectMapper objectMapper;
+
+    @Override
+    public boolean canHandle(String topic) {
+        return topic.equals("profile-updated-events");
+    }
+
+    @Override
+    public void handleEvent(String jsonEvent) throws JsonProcessingException {
+        ProfileUpdatedEvent event = objectMapper.readValue(jsonEvent, ProfileUpdatedEvent.class);
+        if (event.getUserId() == null) {
+            return;
+        }
+        String fullName = (nullToEmpty(event.getFirstName()) + " " + nullToEmpty(event.getLastName())).trim();
+
+        long asSender = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("senderUserId").is(event.getUserId())),
+                new Update()
+                        .set("senderName", fullName)
+                        .set("senderFirstName", event.getFirstName())
+                        .set("senderLastName", event.getLastName())
+                        .set("senderImageUrl", event.getImageUrl()),
+                Notification.class).getModifiedCount();
+
+        long asReceiver = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("receiverUserId").is(event.getUserId())),
+                new Update().set("receiverName", fullName),
+                Notification.class).getModifiedCount();
+
+        // Actor trong notification đã gộp (like post/story)
+        long asActor = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("recentActors.senderUserId").is(event.getUserId())),
+                new Update()
+                        .set("recentActors.$[actor].senderName", fullName)
+                        .set("recentActors.$[actor].senderImageUrl", event.getImageUrl())
+                        .filterArray(Criteria.where("actor.senderUserId").is(event.getUserId())),
+                Notification.class).getModifiedCount();
+
+        log.info("Profile {} updated: {} sent, {} received, {} aggregated notifications refreshed",
+                event.getUserId(), asSender, asReceiver, asActor);
+    }
+
+    private String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
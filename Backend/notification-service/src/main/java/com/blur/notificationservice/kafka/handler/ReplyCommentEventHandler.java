@@ -1,26 +1,28 @@
 package com.blur.notificationservice.kafka.handler;
 
 import com.blur.notificationservice.dto.event.Event;
+import com.blur.notificationservice.dto.response.UserProfileResponse;
 import com.blur.notificationservice.entity.Notification;
 import com.blur.notificationservice.kafka.model.Type;
-import com.blur.notificationservice.repository.httpclient.ProfileClient;
+import com.blur.notificationservice.repository.httpclient.ProfileBatchClient;
+import com.blur.notificationservice.service.EmailService;
 import com.blur.notificationservice.service.NotificationService;
 import com.blur.notificationservice.service.NotificationWebSocketService;
-import com.blur.notificationservice.service.RedisService;
+import com.blur.notificationservice.service.PresenceService;
+import com.blur.notificationservice.template.EmailTemplate;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import jakarta.mail.internet.MimeMessage;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
 
 @RequiredArgsConstructor
 @Component
@@ -30,21 +32,37 @@ public class ReplyCommentEventHandler implements EventHandler<Event> {
 
     RedisTemplate<String, String> redisTemplate;
     SimpMessagingTemplate simpMessagingTemplate;
-    JavaMailSender emailSender;
+    EmailService emailService;
     NotificationService notificationService;
     NotificationWebSocketService notificationWebSocketService;
     ObjectMapper objectMapper;
-    RedisService redisService;
-    ProfileClient profileClient;
+    PresenceService presenceService;
+    ProfileBatchClient profileBatchClient;
 
     @Override
     public boolean canHandle(String topic) {
         return topic.equals("user-reply-comment-events");
     }
 
+    @Override
+    public String profileUserId(String jsonEvent) throws JsonProcessingException {
+        return objectMapper.readValue(jsonEvent, Event.class).getSenderId();
+    }
+
     @Override
     public void handleEvent(String jsonEvent) throws JsonProcessingException {
         Event event = objectMapper.readValue(jsonEvent, Event.class);
+        String senderId = event.getSenderId();
+        handle(event, profileBatchClient.getProfiles(Collections.singletonList(senderId)).get(senderId));
+    }
+
+    @Override
+    public void handleEvent(String jsonEvent, Map<String, UserProfileResponse> profiles) throws JsonProcessingException {
+        Event event = objectMapper.readValue(jsonEvent, Event.class);
+        handle(event, profiles.get(event.getSenderId()));
+    }
+
+    private void handle(Event event, UserProfileResponse profile) {
         event.setTimestamp(LocalDateTime.now());
 
         // ❌ Nếu tự reply chính mình → bỏ qua
@@ -53,19 +71,23 @@ public class ReplyCommentEventHandler implements EventHandler<Event> {
             return;
         }
 
-        var profile = profileClient.getProfile(event.getSenderId());
+        if (profile == null) {
+            // Sender chưa có/không còn profile: vẫn tạo notification từ dữ liệu trong event, không có avatar
+            log.warn("Profile not found for sender {}, using event data", event.getSenderId());
+            profile = new UserProfileResponse();
+        }
 
         Notification notification = Notification.builder()
                 .senderId(event.getSenderId())
                 .senderUserId(event.getSenderUserId())  // ⭐ THÊM
                 .senderName(event.getSenderName())
-                .senderFirstName(profile.getResult().getFirstName())  // ⭐ THÊM
-                .senderLastName(profile.getResult().getLastName())    // ⭐ THÊM
+                .senderFirstName(profile.getFirstName())  // ⭐ THÊM
+                .senderLastName(profile.getLastName())    // ⭐ THÊM
                 .receiverId(event.getReceiverId())
                 .receiverUserId(event.getReceiverUserId())  // ⭐ THÊM
                 .receiverName(event.getReceiverName())
                 .receiverEmail(event.getReceiverEmail())
-                .senderImageUrl(profile.getResult().getImageUrl())
+                .senderImageUrl(profile.getImageUrl())
                 .postId(event.getPostId())
                 .read(false)
                 .type(Type.Reply)
@@ -77,7 +99,7 @@ public class ReplyCommentEventHandler implements EventHandler<Event> {
 
         // ⭐ GỬI TỚI receiverUserId
         String targetUserId = event.getReceiverUserId();
-        boolean isOnline = redisService.isOnline(targetUserId);
+        boolean isOnline = presenceService.isReachable(targetUserId);
         log.info("🔍 User {} online status: {}", targetUserId, isOnline);
 
         if (isOnline) {
@@ -88,52 +110,7 @@ public class ReplyCommentEventHandler implements EventHandler<Event> {
                     notification
             );
         } else {
-            sendReplyCommentNotification(notification);
-        }
-    }
-
-    private void sendReplyCommentNotification(Notification notification) {
-        try {
-            MimeMessage message = emailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
-
-            helper.setTo(notification.getReceiverEmail());
-            helper.setSubject("🔁 New Reply to Your Comment on Blur!");
-
-            String emailContent =
-                    "<!DOCTYPE html>" +
-                            "<html>" +
-                            "<head>" +
-                            "    <meta charset=\"UTF-8\">" +
-                            "    <meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\">" +
-                            "    <title>Reply to Your Comment</title>" +
-                            "</head>" +
-                            "<body style=\"margin: 0; padding: 0; font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif;\">" +
-                            "    <div style=\"background-color: #f5f8fa; padding: 20px;\">" +
-                            "        <div style=\"max-width: 600px; margin: 0 auto; background-color: #ffffff; border-radius: 10px; overflow: hidden; box-shadow: 0 4px 8px rgba(0, 0, 0, 0.05);\">" +
-                            "            <div style=\"background-color: #1DA1F2; padding: 30px 20px; text-align: center;\">" +
-                            "                <h1 style=\"color: #ffffff; margin: 0; font-size: 24px;\">Someone Replied to Your Comment!</h1>" +
-                            "            </div>" +
-                            "            <div style=\"padding: 30px; color: #4a4a4a;\">" +
-                            "                <p style=\"font-size: 16px; margin-top: 0;\">Hi <span style=\"font-weight: bold;\">" + notification.getReceiverName() + "</span>,</p>" +
-                            "                <div style=\"background-color: #f2f9ff; border-left: 4px solid #1DA1F2; padding: 15px; margin: 20px 0; border-radius: 4px;\">" +
-                            "                    <p style=\"margin: 0; font-size: 16px;\">" +
-                            "                        <span style=\"font-weight: bold; color: #1DA1F2;\">" + notification.getSenderName() + "</span> has replied to your comment!" +
-                            "                    </p>" +
-                            "                </div>" +
-                            "                <p style=\"font-size: 16px;\">See what they said and keep the conversation going!</p>" +
-                            "                <p style=\"color: #777777; font-size: 14px; margin-top: 40px;\">Stay connected and continue sharing your thoughts on Blur!</p>" +
-                            "            </div>" +
-                            "        </div>" +
-                            "    </div>" +
-                            "</body>" +
-                            "</html>";
-
-            helper.setText(emailContent, true);
-            emailSender.send(message);
-            log.info("Reply comment notification email sent to {}", notification.getReceiverEmail());
-        } catch (Exception e) {
-            log.error("Failed to send reply notification email to {}: {}", notification.getReceiverEmail(), e.getMessage(), e);
+            emailService.sendNotificationEmail(EmailTemplate.REPLY_COMMENT, notification);
         }
     }
 }
\ No newline at end of file
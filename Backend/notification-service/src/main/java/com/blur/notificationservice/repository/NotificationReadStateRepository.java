@@ -0,0 +1,7 @@
+package com.blur.notificationservice.repository;
+
+import com.blur.notificationservice.entity.NotificationReadState;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface NotificationReadStateRepository extends MongoRepository<NotificationReadState, String> {
+}
@@ -1,11 +1,24 @@
 package com.blur.notificationservice.repository;
 
 import com.blur.notificationservice.entity.Notification;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface NotificationRepository extends MongoRepository<Notification, String> {
-    List<Notification> findByReceiverIdOrderByTimestampDesc(String receiverId);
-    List<Notification> findAllByReceiverId(String receiverId);
+
+    @Query(value = "{ 'receiverId': ?0 }", sort = "{ 'timestamp': -1, '_id': -1 }")
+    List<Notification> findFirstPage(String receiverId, Pageable pageable);
+
+    // Keyset pagination: lấy các notification cũ hơn cursor (timestamp, _id)
+    @Query(value = "{ 'receiverId': ?0, '$or': [ { 'timestamp': { '$lt': ?1 } }, { 'timestamp': ?1, '_id': { '$lt': ?2 } } ] }",
+            sort = "{ 'timestamp': -1, '_id': -1 }")
+    List<Notification> findPageBefore(String receiverId, LocalDateTime timestamp, ObjectId id, Pageable pageable);
+
+    long countByReceiverIdAndReadFalse(String receiverId);
+    long countByReceiverIdAndReadFalseAndTimestampAfter(String receiverId, LocalDateTime timestamp);
 }
@@ -0,0 +1,38 @@
+package com.blur.notificationservice.repository.httpclient;
+
+import com.blur.notificationservice.dto.response.UserProfileResponse;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Tra profile cho một danh sách userId đã biết trước qua POST /internal/users/batch,
+// chia chunk để không vượt giới hạn batch của profile-service
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ProfileBatchClient {
+    private static final int MAX_BATCH_SIZE = 200;
+
+    ProfileClient profileClient;
+
+    // userId không có profile sẽ không có trong map trả về
+    public Map<String, UserProfileResponse> getProfiles(Collection<String> userIds) {
+        List<String> ids = userIds.stream().filter(Objects::nonNull).distinct().toList();
+        Map<String, UserProfileResponse> result = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += MAX_BATCH_SIZE) {
+            List<String> chunk = ids.subList(from, Math.min(from + MAX_BATCH_SIZE, ids.size()));
+            Map<String, UserProfileResponse> profiles = profileClient.getProfiles(chunk).getResult();
+            if (profiles != null) {
+                result.putAll(profiles);
+            }
+        }
+        return result;
+    }
+}
@@ -6,9 +6,17 @@ import com.blur.notificationservice.dto.response.UserProfileResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
+import java.util.Map;
 
 @FeignClient(name = "profile-service",url = "${app.service.profile.url}")
 public interface ProfileClient {
     @GetMapping("/internal/users/{userId}")
     ApiResponse<UserProfileResponse> getProfile(@PathVariable("userId") String userId);
+
+    @PostMapping("/internal/users/batch")
+    ApiResponse<Map<String, UserProfileResponse>> getProfiles(@RequestBody List<String> userIds);
 }
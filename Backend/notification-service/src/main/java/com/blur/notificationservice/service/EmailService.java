@@ -0,0 +1,49 @@
+package com.blur.notificationservice.service;
+
+import com.blur.notificationservice.entity.Notification;
+import com.blur.notificationservice.template.EmailTemplate;
+import com.blur.notificationservice.template.EmailTemplateEngine;
+import jakarta.mail.internet.MimeMessage;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class EmailService {
+    JavaMailSender emailSender;
+    EmailTemplateEngine templateEngine;
+
+    public void sendNotificationEmail(EmailTemplate template, Notification notification) {
+        Map<String, String> variables = new HashMap<>(4);
+        variables.put("receiverName", notification.getReceiverName());
+        variables.put("senderName", notification.getSenderName());
+        variables.put("senderId", notification.getSenderId());
+        send(template, notification.getReceiverEmail(), variables);
+    }
+
+    public void send(EmailTemplate template, String to, Map<String, String> variables) {
+        try {
+            MimeMessage message = emailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true);
+
+            helper.setTo(to);
+            helper.setSubject(template.getSubject());
+            helper.setText(templateEngine.render(template, variables), true);
+
+            emailSender.send(message);
+            log.info("{} email notification sent to {}", template.getName(), to);
+        } catch (Exception e) {
+            log.error("Failed to send {} email notification to {}: {}", template.getName(), to, e.getMessage(), e);
+        }
+    }
+}
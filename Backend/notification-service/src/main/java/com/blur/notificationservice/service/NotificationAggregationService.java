@@ -0,0 +1,173 @@
+package com.blur.notificationservice.service;
+
+import com.blur.notificationservice.entity.Notification;
+import com.blur.notificationservice.entity.NotificationActor;
+import com.blur.notificationservice.entity.NotificationGroupActor;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gộp các like/reaction cùng receiver, type và target (postId/storyId) trong một cửa sổ thời gian
+ * thành một notification duy nhất ("X and 42 others ..."), và gộp luôn các lần push realtime.
+ *
+ * Mỗi key chỉ có một nhóm mở (unique index trên openGroupKey, tạo bằng upsert), actor đã tính được ghi
+ * ở notification_group_actors nên cùng một actor không bị đếm hai lần kể cả khi event đến đồng thời.
+ * Nội dung "and N others" được dựng từ actorCount lúc đọc (Notification#getContent).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class NotificationAggregationService {
+    MongoTemplate mongoTemplate;
+    UnreadCountService unreadCountService;
+    SimpMessagingTemplate simpMessagingTemplate;
+
+    // targetUserId + aggregationKey -> trạng thái mới nhất chờ push
+    Map<String, PendingPush> pendingPushes = new ConcurrentHashMap<>();
+
+    @NonFinal
+    @Value("${app.notification.aggregation.window:PT6H}")
+    Duration window;
+
+    @NonFinal
+    @Value("${app.notification.aggregation.recent-actors:3}")
+    int recentActorLimit;
+
+    /**
+     * @param groupContent nội dung dùng khi nhóm có từ 2 actor trở lên, nối sau "and N others"
+     * @return notification sau khi gộp, hoặc null nếu actor này đã có trong nhóm (like lại lần nữa)
+     */
+    public Notification aggregate(Notification incoming, String groupContent) {
+        String aggregationKey = buildKey(incoming);
+        Notification group = openGroup(incoming, aggregationKey, groupContent);
+
+        try {
+            mongoTemplate.insert(NotificationGroupActor.builder()
+                    .id(group.getId() + ":" + incoming.getSenderId())
+                    .groupId(group.getId())
+                    .createdAt(incoming.getTimestamp())
+                    .build());
+        } catch (DuplicateKeyException e) {
+            log.info("Skip duplicate actor {} for {}", incoming.getSenderId(), aggregationKey);
+            return null;
+        }
+
+        NotificationActor actor = NotificationActor.builder()
+                .senderId(incoming.getSenderId())
+                .senderUserId(incoming.getSenderUserId())
+                .senderName(incoming.getSenderName())
+                .senderImageUrl(incoming.getSenderImageUrl())
+                .build();
+        Update update = new Update()
+                .inc("actorCount", 1)
+                .push("recentActors").atPosition(Update.Position.FIRST).slice(recentActorLimit).each(actor)
+                .set("senderId", incoming.getSenderId())
+                .set("senderUserId", incoming.getSenderUserId())
+                .set("senderName", incoming.getSenderName())
+                .set("senderFirstName", incoming.getSenderFirstName())
+                .set("senderLastName", incoming.getSenderLastName())
+                .set("senderImageUrl", incoming.getSenderImageUrl())
+                .set("timestamp", incoming.getTimestamp());
+
+        Notification updated = mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(group.getId())),
+                update, FindAndModifyOptions.options().returnNew(true), Notification.class);
+        if (updated == null) {
+            return null;
+        }
+        if (updated.getActorCount() == 1) {
+            // Actor đầu tiên: nhóm vừa thành một notification chưa đọc mới
+            unreadCountService.increment(updated.getReceiverId());
+        }
+        log.info("🧮 Aggregated {} into {} ({} actors)", incoming.getSenderId(), aggregationKey, updated.getActorCount());
+        return updated;
+    }
+
+    /**
+     * Nhóm đang mở của key, tạo mới nếu chưa có. Nhóm đã đọc hoặc đã quá cửa sổ được đóng trước (bỏ openGroupKey)
+     * để upsert mở nhóm mới; upsert trùng đồng thời chỉ một bên insert được nhờ unique index.
+     */
+    private Notification openGroup(Notification incoming, String aggregationKey, String groupContent) {
+        LocalDateTime windowStart = incoming.getTimestamp().minus(window);
+        mongoTemplate.updateMulti(
+                new Query(Criteria.where("openGroupKey").is(aggregationKey)
+                        .orOperator(Criteria.where("read").is(true), Criteria.where("timestamp").lt(windowStart))),
+                new Update().unset("openGroupKey"),
+                Notification.class);
+
+        incoming.setAggregationKey(aggregationKey);
+        incoming.setGroupContent(groupContent);
+        incoming.setActorCount(0);
+        incoming.setRecentActors(new ArrayList<>());
+        Document fields = new Document();
+        mongoTemplate.getConverter().write(incoming, fields);
+        fields.remove("_id");
+        fields.remove("openGroupKey");
+        Update insertOnly = new Update();
+        fields.forEach(insertOnly::setOnInsert);
+
+        Query query = Query.query(Criteria.where("openGroupKey").is(aggregationKey));
+        FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(true);
+        try {
+            return mongoTemplate.findAndModify(query, insertOnly, options, Notification.class);
+        } catch (DuplicateKeyException e) {
+            // Instance khác vừa tạo nhóm cùng key: đọc lại nhóm đó
+            return mongoTemplate.findAndModify(query, insertOnly, options, Notification.class);
+        }
+    }
+
+    public void schedulePush(String targetUserId, Notification notification) {
+        pendingPushes.put(targetUserId + ":" + notification.getAggregationKey(),
+                new PendingPush(targetUserId, notification));
+    }
+
+    @Scheduled(fixedDelayString = "${app.notification.aggregation.push-interval-ms:2000}")
+    public void flushPendingPushes() {
+        if (pendingPushes.isEmpty()) {
+            return;
+        }
+        for (String key : new ArrayList<>(pendingPushes.keySet())) {
+            PendingPush push = pendingPushes.remove(key);
+            if (push == null) {
+                continue;
+            }
+            try {
+                simpMessagingTemplate.convertAndSendToUser(
+                        push.targetUserId(),
+                        "/queue/notifications",
+                        push.notification()
+                );
+            } catch (Exception e) {
+                log.error("Failed to push aggregated notification to {}: {}", push.targetUserId(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private String buildKey(Notification notification) {
+        String target = notification.getPostId() != null ? notification.getPostId() : notification.getStoryId();
+        return notification.getReceiverId() + ":" + notification.getType() + ":" + target;
+    }
+
+    private record PendingPush(String targetUserId, Notification notification) {
+    }
+}
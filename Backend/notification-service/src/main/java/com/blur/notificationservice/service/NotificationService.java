@@ -1,16 +1,29 @@
 package com.blur.notificationservice.service;
 
+import com.blur.notificationservice.dto.response.NotificationPageResponse;
 import com.blur.notificationservice.entity.Notification;
+import com.blur.notificationservice.entity.NotificationReadState;
 import com.blur.notificationservice.exception.AppException;
 import com.blur.notificationservice.exception.ErrorCode;
+import com.blur.notificationservice.repository.NotificationReadStateRepository;
 import com.blur.notificationservice.repository.NotificationRepository;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
 
 @Service
@@ -18,13 +31,47 @@ import java.util.List;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 
 public class NotificationService {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String CURSOR_SEPARATOR = "|";
+
     NotificationRepository notificationRepository;
+    NotificationReadStateRepository readStateRepository;
+    UnreadCountService unreadCountService;
+    MongoTemplate mongoTemplate;
 
     public void save(Notification notification){
+        boolean isNew = notification.getId() == null;
         notificationRepository.save(notification);
+        if (isNew && !Boolean.TRUE.equals(notification.getRead())) {
+            unreadCountService.increment(notification.getReceiverId());
+        }
     }
-    public List<Notification> getForUser(String receiverId){
-        return notificationRepository.findByReceiverIdOrderByTimestampDesc(receiverId);
+    public NotificationPageResponse getForUser(String receiverId, String cursor, Integer limit){
+        int size = limit == null || limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        // Lấy dư 1 phần tử để biết còn trang sau hay không
+        PageRequest pageRequest = PageRequest.of(0, size + 1);
+
+        List<Notification> notifications;
+        if (cursor == null || cursor.isBlank()) {
+            notifications = notificationRepository.findFirstPage(receiverId, pageRequest);
+        } else {
+            String[] parts = decodeCursor(cursor);
+            notifications = notificationRepository.findPageBefore(
+                    receiverId, LocalDateTime.parse(parts[0]), new ObjectId(parts[1]), pageRequest);
+        }
+
+        boolean hasNext = notifications.size() > size;
+        List<Notification> items = hasNext ? notifications.subList(0, size) : notifications;
+        applyReadWatermark(receiverId, items);
+        return NotificationPageResponse.builder()
+                .items(items)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? encodeCursor(items.get(items.size() - 1)) : null)
+                .build();
+    }
+    public long getUnreadCount(String receiverId){
+        return unreadCountService.getUnreadCount(receiverId);
     }
     public String markAsRead(String notificationId){
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -35,19 +82,66 @@ public class NotificationService {
         if(!notification.getReceiverId().equals(userId)){
             throw new AppException(ErrorCode.YOU_ARE_NOT_ALLOWED);
         }
+        if (Boolean.TRUE.equals(notification.getRead()) || isCoveredByWatermark(userId, notification)) {
+            return "Marked as read";
+        }
         notification.setRead(true);
         notificationRepository.save(notification);
+        unreadCountService.decrement(userId);
         return "Marked as read";
     }
     public String markAllAsRead(){
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         var userId = authentication.getName();
-        var notifications = notificationRepository.findAllByReceiverId(userId);
-        notifications.forEach(notification ->{
-            notification.setRead(true);
-            notificationRepository.save(notification);
-        } );
+        LocalDateTime readUpTo = LocalDateTime.now();
+        readStateRepository.save(NotificationReadState.builder()
+                .receiverId(userId)
+                .readUpTo(readUpTo)
+                .build());
+
+        // Một lệnh updateMany thay vì save từng notification
+        Query query = new Query(Criteria.where("receiverId").is(userId)
+                .and("read").is(false)
+                .and("timestamp").lte(readUpTo));
+        mongoTemplate.updateMulti(query, Update.update("read", true), Notification.class);
+        unreadCountService.reset(userId);
         return "Marked all as read";
 
     }
+
+    private boolean isCoveredByWatermark(String receiverId, Notification notification) {
+        return notification.getTimestamp() != null && readStateRepository.findById(receiverId)
+                .map(state -> !notification.getTimestamp().isAfter(state.getReadUpTo()))
+                .orElse(false);
+    }
+
+    private void applyReadWatermark(String receiverId, List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        readStateRepository.findById(receiverId).ifPresent(state -> notifications.forEach(notification -> {
+            if (notification.getTimestamp() != null && !notification.getTimestamp().isAfter(state.getReadUpTo())) {
+                notification.setRead(true);
+            }
+        }));
+    }
+
+    private String encodeCursor(Notification notification) {
+        String raw = notification.getTimestamp() + CURSOR_SEPARATOR + notification.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + CURSOR_SEPARATOR, 2);
+            if (parts.length != 2 || !ObjectId.isValid(parts[1])) {
+                throw new AppException(ErrorCode.INVALID_CURSOR);
+            }
+            LocalDateTime.parse(parts[0]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+    }
 }
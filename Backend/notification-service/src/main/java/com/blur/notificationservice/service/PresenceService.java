@@ -0,0 +1,189 @@
+package com.blur.notificationservice.service;
+
+import com.blur.notificationservice.exception.AppException;
+import com.blur.notificationservice.exception.ErrorCode;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Presence dùng chung giữa notification-service và chat-service.
+ * Mỗi user là một ZSET "presence:user:{userId}", mỗi kết nối là một member "{service}:{connectionId}"
+ * với score là thời điểm hết hạn; heartbeat định kỳ gia hạn các kết nối còn sống trên instance này.
+ * User online khi còn ít nhất một kết nối chưa hết hạn, nên đóng một tab không làm user offline.
+ * isOnline/getPresence trả lời "online ở bất kỳ kênh nào" (hiển thị trạng thái); quyết định push STOMP hay gửi
+ * email phải dùng isReachable, chỉ tính member "notification:" vì socket của chat không nhận được /queue/notifications.
+ *
+ * Các service không có module dùng chung nên chat-service giữ bản riêng (com.blur.chatservice.service.PresenceService).
+ * Hai bản phải giữ cùng key, định dạng member, score và app.presence.ttl-ms; đổi một bên thì đổi cả bên kia.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PresenceService {
+    private static final String PRESENCE_PREFIX = "presence:user:";
+    private static final String SERVICE_NAME = "notification";
+
+    StringRedisTemplate redisTemplate;
+
+    // connectionId -> userId của các kết nối đang mở trên instance này
+    Map<String, String> localConnections = new ConcurrentHashMap<>();
+
+    @NonFinal
+    @Value("${app.presence.ttl-ms:90000}")
+    long ttlMillis;
+
+    @NonFinal
+    @Value("${app.presence.batch-max-size:200}")
+    int batchMaxSize;
+
+    public void connect(String userId, String connectionId) {
+        if (userId == null || connectionId == null) {
+            return;
+        }
+        localConnections.put(connectionId, userId);
+        try {
+            String key = PRESENCE_PREFIX + userId;
+            redisTemplate.opsForZSet().add(key, member(connectionId), System.currentTimeMillis() + ttlMillis);
+            redisTemplate.expire(key, ttlMillis, TimeUnit.MILLISECONDS);
+            log.info("✅ User {} connected ({})", userId, connectionId);
+        } catch (Exception e) {
+            log.error("Cannot register presence for {}: {}", userId, e.getMessage());
+        }
+    }
+
+    public void disconnect(String userId, String connectionId) {
+        if (connectionId == null) {
+            return;
+        }
+        String owner = localConnections.remove(connectionId);
+        String resolvedUserId = userId != null ? userId : owner;
+        if (resolvedUserId == null) {
+            return;
+        }
+        try {
+            redisTemplate.opsForZSet().remove(PRESENCE_PREFIX + resolvedUserId, member(connectionId));
+            log.info("🚪 User {} disconnected ({})", resolvedUserId, connectionId);
+        } catch (Exception e) {
+            log.error("Cannot remove presence for {}: {}", resolvedUserId, e.getMessage());
+        }
+    }
+
+    public boolean isOnline(String userId) {
+        if (userId == null) {
+            return false;
+        }
+        try {
+            Long alive = redisTemplate.opsForZSet()
+                    .count(PRESENCE_PREFIX + userId, System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+            return alive != null && alive > 0;
+        } catch (Exception e) {
+            log.error("Cannot check presence for {}: {}", userId, e.getMessage());
+            return false;
+        }
+    }
+
+    // Chỉ tính kết nối STOMP của notification-service; user chỉ mở socket chat vẫn coi là không nhận được push
+    public boolean isReachable(String userId) {
+        if (userId == null) {
+            return false;
+        }
+        try {
+            Set<String> alive = redisTemplate.opsForZSet()
+                    .rangeByScore(PRESENCE_PREFIX + userId, System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+            String prefix = member("");
+            return alive != null && alive.stream().anyMatch(m -> m.startsWith(prefix));
+        } catch (Exception e) {
+            log.error("Cannot check presence for {}: {}", userId, e.getMessage());
+            return false;
+        }
+    }
+
+    // Một lần pipeline cho nhiều user; giới hạn số userId để một request không dựng pipeline tuỳ ý lớn
+    public Map<String, Boolean> getPresence(Collection<String> userIds) {
+        List<String> ids = userIds == null
+                ? List.of()
+                : new ArrayList<>(new LinkedHashSet<>(userIds.stream().filter(Objects::nonNull).toList()));
+        if (ids.size() > batchMaxSize) {
+            throw new AppException(ErrorCode.BATCH_TOO_LARGE);
+        }
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        if (ids.isEmpty()) {
+            return result;
+        }
+        long now = System.currentTimeMillis();
+        try {
+            List<Object> counts = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) throws DataAccessException {
+                    for (String id : ids) {
+                        operations.opsForZSet().count(PRESENCE_PREFIX + id, now, Double.POSITIVE_INFINITY);
+                    }
+                    return null;
+                }
+            });
+            for (int i = 0; i < ids.size(); i++) {
+                Object count = counts.get(i);
+                result.put(ids.get(i), count instanceof Long alive && alive > 0);
+            }
+        } catch (Exception e) {
+            log.error("Cannot check presence for {} users: {}", ids.size(), e.getMessage());
+            ids.forEach(id -> result.put(id, false));
+        }
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${app.presence.heartbeat-ms:30000}")
+    public void heartbeat() {
+        if (localConnections.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long expiresAt = now + ttlMillis;
+        Map<String, String> snapshot = Map.copyOf(localConnections);
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) throws DataAccessException {
+                    snapshot.forEach((connectionId, userId) -> {
+                        String key = PRESENCE_PREFIX + userId;
+                        operations.opsForZSet().add(key, member(connectionId), expiresAt);
+                        // Dọn các kết nối của instance đã chết
+                        operations.opsForZSet().removeRangeByScore(key, Double.NEGATIVE_INFINITY, now);
+                        operations.expire(key, ttlMillis, TimeUnit.MILLISECONDS);
+                    });
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            log.error("Presence heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    private String member(String connectionId) {
+        return SERVICE_NAME + ":" + connectionId;
+    }
+}
@@ -0,0 +1,97 @@
+package com.blur.notificationservice.service;
+
+import com.blur.notificationservice.repository.NotificationReadStateRepository;
+import com.blur.notificationservice.repository.NotificationRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Cache số notification chưa đọc cho badge, tránh phải load cả inbox.
+ * Counter chỉ được cộng/trừ khi key đang tồn tại; nếu chưa có thì đếm lại từ Mongo khi đọc.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class UnreadCountService {
+    private static final String UNREAD_PREFIX = "notification:unread:";
+    private static final Duration UNREAD_TTL = Duration.ofDays(1);
+
+    private static final RedisScript<Long> INCR_IF_PRESENT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then " +
+                    "local v = redis.call('INCRBY', KEYS[1], ARGV[1]) " +
+                    "if v < 0 then redis.call('INCRBY', KEYS[1], -v) v = 0 end " +
+                    "return v " +
+                    "end " +
+                    "return -1",
+            Long.class);
+
+    RedisTemplate<String, String> redisTemplate;
+    NotificationRepository notificationRepository;
+    NotificationReadStateRepository readStateRepository;
+
+    public long getUnreadCount(String receiverId) {
+        String key = UNREAD_PREFIX + receiverId;
+        try {
+            String cached = redisTemplate.opsForValue().get(key);
+            if (cached != null) {
+                return Long.parseLong(cached);
+            }
+        } catch (Exception e) {
+            log.warn("Cannot read unread count for {}: {}", receiverId, e.getMessage());
+        }
+
+        long count = readStateRepository.findById(receiverId)
+                .map(state -> notificationRepository.countByReceiverIdAndReadFalseAndTimestampAfter(receiverId, state.getReadUpTo()))
+                .orElseGet(() -> notificationRepository.countByReceiverIdAndReadFalse(receiverId));
+        try {
+            redisTemplate.opsForValue().setIfAbsent(key, String.valueOf(count), UNREAD_TTL);
+        } catch (Exception e) {
+            log.warn("Cannot cache unread count for {}: {}", receiverId, e.getMessage());
+        }
+        return count;
+    }
+
+    public void increment(String receiverId) {
+        adjust(receiverId, 1);
+    }
+
+    public void decrement(String receiverId) {
+        adjust(receiverId, -1);
+    }
+
+    public void reset(String receiverId) {
+        try {
+            redisTemplate.opsForValue().set(UNREAD_PREFIX + receiverId, "0", UNREAD_TTL);
+        } catch (Exception e) {
+            log.warn("Cannot reset unread count for {}: {}", receiverId, e.getMessage());
+        }
+    }
+
+    private void adjust(String receiverId, long delta) {
+        try {
+            redisTemplate.execute(INCR_IF_PRESENT, List.of(UNREAD_PREFIX + receiverId), String.valueOf(delta));
+        } catch (Exception e) {
+            // Nếu Redis lỗi thì xoá key để lần đọc sau đếm lại từ Mongo
+            log.warn("Cannot adjust unread count for {}: {}", receiverId, e.getMessage());
+            evict(receiverId);
+        }
+    }
+
+    private void evict(String receiverId) {
+        try {
+            redisTemplate.delete(UNREAD_PREFIX + receiverId);
+        } catch (Exception ignored) {
+            // Redis không khả dụng, bỏ qua
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.blur.notificationservice.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Template đã được tách sẵn thành các đoạn literal và placeholder {{name}}.
+ * Việc parse chỉ diễn ra một lần lúc khởi động, render chỉ còn append vào buffer.
+ */
+public final class CompiledTemplate {
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    // literals.length == keys.length + 1
+    private final String[] literals;
+    private final String[] keys;
+    private final int literalLength;
+
+    private CompiledTemplate(String[] literals, String[] keys) {
+        this.literals = literals;
+        this.keys = keys;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static CompiledTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        int cursor = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, cursor);
+            int close = open < 0 ? -1 : source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                literals.add(source.substring(cursor));
+                break;
+            }
+            literals.add(source.substring(cursor, open));
+            keys.add(source.substring(open + OPEN.length(), close).trim());
+            cursor = close + CLOSE.length();
+        }
+        return new CompiledTemplate(literals.toArray(String[]::new), keys.toArray(String[]::new));
+    }
+
+    public int estimatedLength() {
+        return literalLength + keys.length * 32;
+    }
+
+    public void renderTo(StringBuilder out, Map<String, String> variables) {
+        for (int i = 0; i < keys.length; i++) {
+            out.append(literals[i]);
+            appendEscaped(out, variables.get(keys[i]));
+        }
+        out.append(literals[keys.length]);
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.blur.notificationservice.template;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public enum EmailTemplate {
+    FOLLOW("follow", "📢 Someone new is following you on Blur!"),
+    LIKE_POST("like-post", "❤️ Someone liked your post on Blur!"),
+    COMMENT("comment", "💬 New Comment on Your Post on Blur!"),
+    REPLY_COMMENT("reply-comment", "🔁 New Reply to Your Comment on Blur!"),
+    LIKE_STORY("like-story", "❤️ Someone Liked Your Story on Blur!");
+
+    String name;
+    String subject;
+}
@@ -0,0 +1,60 @@
+package com.blur.notificationservice.template;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Slf4j
+@Component
+public class EmailTemplateEngine {
+    private static final String TEMPLATE_LOCATION = "classpath:templates/email/%s.html";
+    // Buffer lớn hơn ngưỡng này sẽ bị bỏ đi để tránh giữ bộ nhớ trên thread của Kafka consumer
+    private static final int MAX_POOLED_CAPACITY = 64 * 1024;
+
+    private final ResourceLoader resourceLoader;
+    private final Map<EmailTemplate, CompiledTemplate> templates = new EnumMap<>(EmailTemplate.class);
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(8 * 1024));
+
+    public EmailTemplateEngine(ResourceLoader resourceLoader) {
+        this.resourceLoader = resourceLoader;
+    }
+
+    @PostConstruct
+    public void init() {
+        for (EmailTemplate template : EmailTemplate.values()) {
+            templates.put(template, CompiledTemplate.compile(load(template)));
+        }
+        log.info("✅ Compiled {} email templates", templates.size());
+    }
+
+    public String render(EmailTemplate template, Map<String, String> variables) {
+        CompiledTemplate compiled = templates.get(template);
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        buffer.ensureCapacity(compiled.estimatedLength());
+        compiled.renderTo(buffer, variables);
+        String result = buffer.toString();
+        if (buffer.capacity() > MAX_POOLED_CAPACITY) {
+            buffers.remove();
+        }
+        return result;
+    }
+
+    private String load(EmailTemplate template) {
+        Resource resource = resourceLoader.getResource(String.format(TEMPLATE_LOCATION, template.getName()));
+        try {
+            return StreamUtils.copyToString(resource.getInputStream(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load email template " + template.getName(), e);
+        }
+    }
+}
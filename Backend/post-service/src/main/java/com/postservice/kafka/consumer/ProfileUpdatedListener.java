@@ -0,0 +1,79 @@
+package com.postservice.kafka.consumer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.postservice.dto.event.ProfileUpdatedEvent;
+import com.postservice.entity.Comment;
+import com.postservice.entity.CommentReply;
+import com.postservice.entity.Post;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Đồng bộ tên tác giả đã lưu trong post/comment/reply khi profile thay đổi
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ProfileUpdatedListener {
+    // Các cache chứa response có tên người viết, profile đổi tên rất hiếm nên xoá toàn bộ
+    private static final List<String> NAME_CACHES = List.of("comments", "commentReplies", "nestedReplies", "commentReplyById");
+
+    MongoTemplate mongoTemplate;
+    ObjectMapper objectMapper;
+    CacheManager cacheManager;
+
+    @KafkaListener(topics = "profile-updated-events", groupId = "post-service")
+    public void listen(ConsumerRecord<String, String> record) throws JsonProcessingException {
+        ProfileUpdatedEvent event = objectMapper.readValue(record.value(), ProfileUpdatedEvent.class);
+        if (event.getUserId() == null) {
+            return;
+        }
+        Query byUser = Query.query(Criteria.where("userId").is(event.getUserId()));
+
+        long posts = mongoTemplate.updateMulti(byUser,
+                new Update()
+                        .set("firstName", event.getFirstName())
+                        .set("lastName", event.getLastName())
+                        .set("profileId", event.getProfileId()),
+                Post.class).getModifiedCount();
+
+        long comments = mongoTemplate.updateMulti(byUser,
+                new Update()
+                        .set("firstName", event.getFirstName())
+                        .set("lastName", event.getLastName()),
+                Comment.class).getModifiedCount();
+
+        String fullName = (nullToEmpty(event.getFirstName()) + " " + nullToEmpty(event.getLastName())).trim();
+        long replies = 0;
+        if (!fullName.isEmpty()) {
+            replies = mongoTemplate.updateMulti(byUser, new Update().set("userName", fullName), CommentReply.class)
+                    .getModifiedCount();
+        }
+
+        if (comments > 0 || replies > 0) {
+            NAME_CACHES.stream()
+                    .map(cacheManager::getCache)
+                    .filter(cache -> cache != null)
+                    .forEach(Cache::clear);
+        }
+        log.info("Profile {} updated: {} posts, {} comments, {} replies refreshed",
+                event.getUserId(), posts, comments, replies);
+    }
+
+    private String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
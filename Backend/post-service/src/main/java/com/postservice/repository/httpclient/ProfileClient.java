@@ -5,6 +5,11 @@ import com.postservice.dto.response.UserProfileResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
+import java.util.Map;
 
 @FeignClient(name = "profile-service",url = "${app.service.profile.url}")
 public interface ProfileClient {
@@ -12,4 +17,6 @@ public interface ProfileClient {
     ApiResponse<UserProfileResponse> getProfile(@PathVariable("userId") String userId);
     @GetMapping("/users/{profileId}")
     ApiResponse<UserProfileResponse> getProfileByProfileId(@PathVariable String profileId);
+    @PostMapping("/internal/users/batch")
+    ApiResponse<Map<String, UserProfileResponse>> getProfiles(@RequestBody List<String> userIds);
 }
@@ -14,6 +14,7 @@ import com.postservice.repository.PostLikeRepository;
 import com.postservice.repository.PostRepository;
 import com.postservice.repository.httpclient.IdentityClient;
 import com.postservice.repository.httpclient.NotificationClient;
+import com.postservice.repository.httpclient.ProfileBatchClient;
 import com.postservice.repository.httpclient.ProfileClient;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -28,6 +29,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -38,6 +40,7 @@ public class PostService {
     PostRepository postRepository;
     PostMapper postMapper;
     ProfileClient profileClient;
+    ProfileBatchClient profileBatchClient;
     PostLikeRepository postLikeRepository;
     NotificationClient notificationClient;
     IdentityClient identityClient;
@@ -93,22 +96,25 @@ public class PostService {
         Pageable pageable = PageRequest.of(page - 1, limit, Sort.by("createdAt").descending());
         Page<Post> postPage = postRepository.findAllByOrderByCreatedAtDesc(pageable);
 
+        // Một lần gọi batch cho cả trang thay vì mỗi post một request
+        Map<String, UserProfileResponse> profiles = Map.of();
+        try {
+            profiles = profileBatchClient.getProfiles(postPage.getContent().stream().map(Post::getUserId).toList());
+        } catch (Exception e) {
+            log.error("Không lấy được profile cho trang feed: {}", e.getMessage());
+        }
+        final Map<String, UserProfileResponse> profilesByUserId = profiles;
+
         List<PostResponse> responses = postPage.getContent().stream().map(post -> {
             String userName = "Unknown";
             String userImageUrl = null;
             String profileId = null;
 
-            try {
-                ApiResponse<UserProfileResponse> response = profileClient.getProfile(post.getUserId());
-                UserProfileResponse userProfileResponse = response.getResult();
-
-                if (userProfileResponse != null) {
-                    userName = userProfileResponse.getFirstName() + " " + userProfileResponse.getLastName();
-                    userImageUrl = userProfileResponse.getImageUrl();
-                    profileId = userProfileResponse.getId();
-                }
-            } catch (Exception e) {
-                log.error("Không lấy được profile cho userId: {}", post.getUserId());
+            UserProfileResponse userProfileResponse = profilesByUserId.get(post.getUserId());
+            if (userProfileResponse != null) {
+                userName = userProfileResponse.getFirstName() + " " + userProfileResponse.getLastName();
+                userImageUrl = userProfileResponse.getImageUrl();
+                profileId = userProfileResponse.getId();
             }
 
             return PostResponse.builder()
@@ -0,0 +1,119 @@
+package com.blur.profileservice.configuration;
+
+import com.blur.profileservice.service.BulkFollowService;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tool import quan hệ follow offline, chỉ bật khi có app.follow-import.file:
+ * java -jar profile-service.jar --spring.main.web-application-type=none --app.follow-import.file=edges.csv
+ * Mỗi dòng "followerUserId,followeeUserId", dòng trống hoặc bắt đầu bằng # bị bỏ qua.
+ * MERGE nên chạy lại cùng file vẫn an toàn; batch lỗi được log rồi bỏ qua, exit code 1 nếu có batch lỗi.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.follow-import.file")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class FollowImportRunner implements ApplicationRunner {
+    private static final int LOG_EVERY_BATCHES = 100;
+
+    BulkFollowService bulkFollowService;
+    ConfigurableApplicationContext applicationContext;
+
+    @NonFinal
+    @Value("${app.follow-import.file}")
+    String file;
+
+    @NonFinal
+    @Value("${app.follow-import.notify:false}")
+    boolean notify;
+
+    @NonFinal
+    @Value("${app.follow-import.exit-on-finish:true}")
+    boolean exitOnFinish;
+
+    @NonFinal
+    long created;
+    @NonFinal
+    int failedBatches;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        int batchSize = bulkFollowService.getBatchSize();
+        long started = System.currentTimeMillis();
+        long read = 0;
+        int batches = 0;
+        Set<Map.Entry<String, String>> batch = new LinkedHashSet<>();
+
+        log.info("Importing follows from {} (batch size {}, notify {})", file, batchSize, notify);
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Map.Entry<String, String> edge = parse(line);
+                if (edge == null) {
+                    continue;
+                }
+                read++;
+                batch.add(edge);
+                if (batch.size() >= batchSize) {
+                    flush(batch, ++batches);
+                    if (batches % LOG_EVERY_BATCHES == 0) {
+                        log.info("Imported {} batches: {} edges read, {} created", batches, read, created);
+                    }
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch, ++batches);
+        }
+
+        log.info("Follow import finished in {} ms: {} edges read, {} created, {} of {} batches failed",
+                System.currentTimeMillis() - started, read, created, failedBatches, batches);
+        if (exitOnFinish) {
+            int exitCode = failedBatches == 0 ? 0 : 1;
+            System.exit(SpringApplication.exit(applicationContext, () -> exitCode));
+        }
+    }
+
+    private void flush(Set<Map.Entry<String, String>> batch, int batchNumber) {
+        try {
+            created += bulkFollowService.importBatch(batch, notify);
+        } catch (Exception e) {
+            failedBatches++;
+            log.error("Follow import batch {} failed ({} edges): {}", batchNumber, batch.size(), e.getMessage());
+        }
+        batch.clear();
+    }
+
+    private Map.Entry<String, String> parse(String line) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+            return null;
+        }
+        String[] parts = trimmed.split(",");
+        if (parts.length < 2 || parts[0].isBlank() || parts[1].isBlank()) {
+            log.warn("Skipping malformed follow import line: {}", line);
+            return null;
+        }
+        return Map.entry(parts[0].trim(), parts[1].trim());
+    }
+}
@@ -0,0 +1,112 @@
+package com.blur.profileservice.configuration;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.neo4j.driver.summary.Plan;
+import org.neo4j.driver.summary.ResultSummary;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sau khi bootstrap schema, EXPLAIN các lookup nóng để chắc chắn chúng dùng index thay vì scan toàn bộ label.
+// Kết quả được export qua gauge profile.neo4j.query.indexed (1 = dùng index, 0 = scan, -1 = không kiểm tra được)
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class Neo4jQueryPlanVerifier implements ApplicationRunner {
+    private static final Set<String> SCAN_OPERATORS = Set.of("AllNodesScan", "NodeByLabelScan");
+
+    private static final Map<String, String> HOT_LOOKUPS = new LinkedHashMap<>();
+
+    static {
+        HOT_LOOKUPS.put("profileByUserId", "EXPLAIN MATCH (u:user_profile {user_id: $value}) RETURN u.id");
+        HOT_LOOKUPS.put("profileById", "EXPLAIN MATCH (u:user_profile {id: $value}) RETURN u.user_id");
+    }
+
+    Neo4jClient neo4jClient;
+    MeterRegistry meterRegistry;
+    Map<String, AtomicInteger> planStates = new ConcurrentHashMap<>();
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            // Index vừa tạo có thể còn POPULATING, planner chỉ dùng index đã ONLINE
+            neo4jClient.query("CALL db.awaitIndexes(30)").run();
+        } catch (Exception e) {
+            log.warn("Neo4j indexes not online yet: {}", e.getMessage());
+        }
+
+        HOT_LOOKUPS.forEach((name, cypher) -> {
+            AtomicInteger state = planStates.computeIfAbsent(name, key -> {
+                AtomicInteger holder = new AtomicInteger(-1);
+                Gauge.builder("profile.neo4j.query.indexed", holder, AtomicInteger::get)
+                        .description("1 if the hot lookup uses an index, 0 if it scans the label, -1 if unknown")
+                        .tag("query", key)
+                        .register(meterRegistry);
+                return holder;
+            });
+
+            try {
+                ResultSummary summary = neo4jClient.query(cypher).bind("").to("value").run();
+                if (!summary.hasPlan()) {
+                    log.warn("No query plan returned for {}", name);
+                    return;
+                }
+                Plan plan = summary.plan();
+                boolean scans = containsOperator(plan, SCAN_OPERATORS);
+                state.set(scans ? 0 : 1);
+                if (scans) {
+                    log.warn("⚠️ Hot lookup {} is planned as a label scan, check the user_profile constraints: {}",
+                            name, describe(plan));
+                } else {
+                    log.info("Hot lookup {} plan: {}", name, describe(plan));
+                }
+            } catch (Exception e) {
+                log.error("Cannot verify query plan for {}: {}", name, e.getMessage());
+            }
+        });
+    }
+
+    private boolean containsOperator(Plan plan, Set<String> operators) {
+        // operatorType có thể kèm hậu tố runtime, ví dụ "NodeByLabelScan@neo4j"
+        String operator = plan.operatorType().split("@")[0];
+        if (operators.contains(operator)) {
+            return true;
+        }
+        for (Plan child : plan.children()) {
+            if (containsOperator(child, operators)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String describe(Plan plan) {
+        StringBuilder out = new StringBuilder(plan.operatorType().split("@")[0]);
+        if (!plan.children().isEmpty()) {
+            out.append(" <- ");
+            for (int i = 0; i < plan.children().size(); i++) {
+                if (i > 0) {
+                    out.append(", ");
+                }
+                out.append(describe(plan.children().get(i)));
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,52 @@
+package com.blur.profileservice.configuration;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Tạo constraint/index cho user_profile khi khởi động, các câu lệnh đều IF NOT EXISTS nên chạy lại nhiều lần vẫn an toàn
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class Neo4jSchemaInitializer implements ApplicationRunner {
+    public static final String USER_SEARCH_INDEX = "user_profile_search";
+
+    private static final List<String> SCHEMA_STATEMENTS = List.of(
+            // Unique constraint tự tạo range index, dùng cho /internal/users/{userId} và các lookup theo id
+            "CREATE CONSTRAINT user_profile_user_id_unique IF NOT EXISTS " +
+                    "FOR (u:user_profile) REQUIRE u.user_id IS UNIQUE",
+            "CREATE CONSTRAINT user_profile_id_unique IF NOT EXISTS " +
+                    "FOR (u:user_profile) REQUIRE u.id IS UNIQUE",
+            "CREATE FULLTEXT INDEX " + USER_SEARCH_INDEX + " IF NOT EXISTS " +
+                    "FOR (u:user_profile) ON EACH [u.username, u.firstName, u.lastName]",
+            "CREATE INDEX user_profile_username IF NOT EXISTS FOR (u:user_profile) ON (u.username)",
+            "CREATE INDEX user_profile_first_name IF NOT EXISTS FOR (u:user_profile) ON (u.firstName)",
+            "CREATE INDEX user_profile_last_name IF NOT EXISTS FOR (u:user_profile) ON (u.lastName)"
+    );
+
+    Neo4jClient neo4jClient;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (String statement : SCHEMA_STATEMENTS) {
+            try {
+                neo4jClient.query(statement).run();
+            } catch (Exception e) {
+                // Không chặn khởi động, query vẫn chạy được (chậm hơn) khi thiếu index
+                log.error("Cannot apply Neo4j schema statement [{}]: {}", statement, e.getMessage());
+            }
+        }
+        log.info("Neo4j schema bootstrap finished ({} statements)", SCHEMA_STATEMENTS.size());
+    }
+}
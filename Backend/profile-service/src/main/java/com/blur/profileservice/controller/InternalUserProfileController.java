@@ -16,6 +16,8 @@ import lombok.experimental.FieldDefaults;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequiredArgsConstructor
@@ -32,10 +34,22 @@ public class InternalUserProfileController {
                 .result(result)
                 .build();
     }
+    @PostMapping("/internal/users/bulk")
+    public ApiResponse<Long> createProfiles(@RequestBody List<ProfileCreationRequest> requests){
+        return ApiResponse.<Long>builder()
+                .result(userProfileService.createProfiles(requests))
+                .build();
+    }
     @GetMapping("/internal/users/{userId}")
     public ApiResponse<UserProfileResponse> getProfile(@PathVariable String userId){
         return ApiResponse.<UserProfileResponse>builder()
                 .result(userProfileService.getByUserId(userId))
                 .build();
     }
+    @PostMapping("/internal/users/batch")
+    public ApiResponse<Map<String, UserProfileResponse>> getProfiles(@RequestBody List<String> userIds){
+        return ApiResponse.<Map<String, UserProfileResponse>>builder()
+                .result(userProfileService.getByUserIds(userIds))
+                .build();
+    }
 }
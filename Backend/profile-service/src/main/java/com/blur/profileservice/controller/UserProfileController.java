@@ -1,14 +1,20 @@
 package com.blur.profileservice.controller;
 
+import com.blur.profileservice.dto.request.BulkFollowRequest;
 import com.blur.profileservice.dto.request.SearchUserRequest;
 import com.blur.profileservice.dto.request.UserProfileUpdateRequest;
 import com.blur.profileservice.dto.response.ApiResponse;
+import com.blur.profileservice.dto.response.BulkFollowResponse;
+import com.blur.profileservice.dto.response.FollowStatsResponse;
+import com.blur.profileservice.dto.response.RecommendationResponse;
 import com.blur.profileservice.dto.response.UserProfileResponse;
+import com.blur.profileservice.dto.response.UserSummaryResponse;
 import com.blur.profileservice.entity.UserProfile;
 import com.blur.profileservice.exception.AppException;
 import com.blur.profileservice.exception.ErrorCode;
 import com.blur.profileservice.mapper.UserProfileMapper;
 import com.blur.profileservice.repository.UserProfileRepository;
+import com.blur.profileservice.service.BulkFollowService;
 import com.blur.profileservice.service.UserProfileService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -27,10 +33,11 @@ import java.util.stream.Collectors;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class UserProfileController {
     UserProfileService userProfileService;
+    BulkFollowService bulkFollowService;
     UserProfileMapper userProfileMapper;
     @GetMapping("/users/{profileId}")
     public ApiResponse<UserProfileResponse> getProfile(@PathVariable String profileId){
-        var result = userProfileMapper.toUserProfileResponse(userProfileService.getUserProfile(profileId));
+        var result = userProfileService.getUserProfile(profileId);
         return ApiResponse.<UserProfileResponse>builder()
                 .code(1000)
                 .result(result)
@@ -49,7 +56,7 @@ public class UserProfileController {
         var profileUpdated = userProfileService.updateUserProfile(userProfileId, request);
         return ApiResponse.<UserProfileResponse>builder()
                 .code(1000)
-                .result(userProfileMapper.toUserProfileResponse(profileUpdated))
+                .result(profileUpdated)
                 .build();
     }
     @DeleteMapping("/users/{userProfileId}")
@@ -79,32 +86,59 @@ public class UserProfileController {
                 .result(userProfileService.unfollowUser(userId))
                 .build();
     }
+    @PostMapping("/users/follow/bulk")
+    public ApiResponse<BulkFollowResponse> followUsers(@RequestBody BulkFollowRequest request){
+        return ApiResponse.<BulkFollowResponse>builder()
+                .result(bulkFollowService.followAll(request.getProfileIds()))
+                .build();
+    }
     @GetMapping("/users/search/{firstName}")
-    public ApiResponse<List<UserProfileResponse>> searchUserProfiles(@PathVariable String firstName){
-        var result = userProfileService.findUserProfileByFirstName(firstName);
-        return ApiResponse.<List<UserProfileResponse>>builder()
+    public ApiResponse<List<UserSummaryResponse>> searchUserProfiles(@PathVariable String firstName,
+                                                                     @RequestParam(value = "page", defaultValue = "1") int page,
+                                                                     @RequestParam(value = "size", defaultValue = "20") int size){
+        var result = userProfileService.findUserProfileByFirstName(firstName, page, size);
+        return ApiResponse.<List<UserSummaryResponse>>builder()
                 .result(result)
                 .build();
     }
     @GetMapping("/users/follower/{profileId}")
-    public ApiResponse<List<UserProfileResponse>> followers(@PathVariable String profileId){
-        var result = userProfileService.getFollowers(profileId);
+    public ApiResponse<List<UserSummaryResponse>> followers(@PathVariable String profileId,
+                                                           @RequestParam(value = "page", defaultValue = "1") int page,
+                                                           @RequestParam(value = "size", defaultValue = "20") int size){
+        var result = userProfileService.getFollowers(profileId, page, size);
 
-        return ApiResponse.<List<UserProfileResponse>>builder()
+        return ApiResponse.<List<UserSummaryResponse>>builder()
                 .result(result)
                 .build();
     }
     @GetMapping("/users/following/{profileId}")
-    public ApiResponse<List<UserProfileResponse>> followings(@PathVariable String profileId){
-        var result = userProfileService.getFollowing(profileId);
-        return ApiResponse.<List<UserProfileResponse>>builder()
+    public ApiResponse<List<UserSummaryResponse>> followings(@PathVariable String profileId,
+                                                            @RequestParam(value = "page", defaultValue = "1") int page,
+                                                            @RequestParam(value = "size", defaultValue = "20") int size){
+        var result = userProfileService.getFollowing(profileId, page, size);
+        return ApiResponse.<List<UserSummaryResponse>>builder()
                 .result(result)
                 .build();
     }
+    @GetMapping("/users/follow-stats/{profileId}")
+    public ApiResponse<FollowStatsResponse> followStats(@PathVariable String profileId){
+        return ApiResponse.<FollowStatsResponse>builder()
+                .result(userProfileService.getFollowStats(profileId))
+                .build();
+    }
+    @GetMapping("/users/recommendations")
+    public ApiResponse<List<RecommendationResponse>> recommendations(
+            @RequestParam(value = "limit", defaultValue = "20") int limit){
+        return ApiResponse.<List<RecommendationResponse>>builder()
+                .result(userProfileService.getRecommendations(limit))
+                .build();
+    }
     @PostMapping("/users/search")
-    ApiResponse<List<UserProfileResponse>> search(@RequestParam(value = "name") String request) {
-        return ApiResponse.<List<UserProfileResponse>>builder()
-                .result(userProfileService.search(request))
+    ApiResponse<List<UserSummaryResponse>> search(@RequestParam(value = "name") String request,
+                                                  @RequestParam(value = "page", defaultValue = "1") int page,
+                                                  @RequestParam(value = "size", defaultValue = "20") int size) {
+        return ApiResponse.<List<UserSummaryResponse>>builder()
+                .result(userProfileService.search(request, page, size))
                 .build();
     }
 
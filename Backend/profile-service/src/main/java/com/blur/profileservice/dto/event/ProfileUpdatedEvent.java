@@ -0,0 +1,22 @@
+package com.blur.profileservice.dto.event;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+
+// Payload của topic profile-updated-events: chỉ gồm các field mà service khác lưu bản sao
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ProfileUpdatedEvent {
+    String profileId;
+    String userId;
+    String username;
+    String firstName;
+    String lastName;
+    String imageUrl;
+    Instant updatedAt;
+}
@@ -0,0 +1,15 @@
+package com.blur.profileservice.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class FollowStatsResponse {
+    long followerCount;
+    long followingCount;
+    boolean followedByMe;
+}
@@ -0,0 +1,14 @@
+package com.blur.profileservice.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class RecommendationResponse {
+    UserSummaryResponse user;
+    long mutualCount;
+}
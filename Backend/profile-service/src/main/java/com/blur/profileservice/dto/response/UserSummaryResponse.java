@@ -0,0 +1,18 @@
+package com.blur.profileservice.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class UserSummaryResponse {
+    String id;
+    String userId;
+    String username;
+    String firstName;
+    String lastName;
+    String imageUrl;
+}
@@ -14,6 +14,7 @@ public enum ErrorCode {
     UNAUTHORIZED(1007, "you do not have permission", HttpStatus.FORBIDDEN),
     USER_NOT_EXIST(1012, "User does not exist", HttpStatus.NOT_FOUND),
     CANNOT_FOLLOW_YOURSELF(1013, "Can't follow yourself", HttpStatus.FORBIDDEN),
+    BATCH_TOO_LARGE(1014, "Too many user ids in one batch", HttpStatus.BAD_REQUEST),
     ;
     private int code;
     private String message;
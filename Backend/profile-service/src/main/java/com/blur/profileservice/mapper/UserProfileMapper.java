@@ -1,7 +1,6 @@
 package com.blur.profileservice.mapper;
 
 import com.blur.profileservice.dto.request.ProfileCreationRequest;
-import com.blur.profileservice.dto.request.UserProfileUpdateRequest;
 import com.blur.profileservice.dto.response.UserProfileResponse;
 import com.blur.profileservice.entity.UserProfile;
 import org.mapstruct.*;
@@ -11,9 +10,6 @@ import java.time.LocalDate;
 @Mapper(componentModel = "spring")
 public interface UserProfileMapper {
 
-    @Mapping(target = "dob", expression = "java(stringToLocalDate(request.getDob()))")
-    void updateUserProfile(@MappingTarget UserProfile userProfile, UserProfileUpdateRequest request);
-
     UserProfileResponse toUserProfileResponse(UserProfile userProfile);
 
     default LocalDate stringToLocalDate(String dob) {
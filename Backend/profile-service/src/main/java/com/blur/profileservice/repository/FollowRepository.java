@@ -0,0 +1,154 @@
+package com.blur.profileservice.repository;
+
+import com.blur.profileservice.dto.response.UserSummaryResponse;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.neo4j.driver.Record;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// Các query trên quan hệ follows chỉ trả về projection nhẹ hoặc COUNT, không load cả node UserProfile
+@Repository
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class FollowRepository {
+    private static final String SUMMARY_PROJECTION =
+            "f.id AS id, f.user_id AS userId, f.username AS username, " +
+            "f.firstName AS firstName, f.lastName AS lastName, f.imageUrl AS imageUrl";
+
+    // Cả batch cạnh chạy trong một transaction, chỉ trả về các cạnh mới tạo (để xoá cache đếm / gửi notification)
+    private static final String MERGE_EDGES = """
+            UNWIND $edges AS edge
+            MATCH (a:user_profile {%1$s: edge.from})
+            MATCH (b:user_profile {%1$s: edge.to})
+            WHERE a <> b
+            OPTIONAL MATCH (a)-[existing:follows]->(b)
+            WITH a, b, existing IS NULL AS created
+            MERGE (a)-[:follows]->(b)
+            WITH a, b, created
+            WHERE created
+            RETURN a.id AS followerId, a.user_id AS followerUserId, a.firstName AS followerFirstName,
+                   a.lastName AS followerLastName, a.imageUrl AS followerImageUrl,
+                   b.id AS followeeId, b.user_id AS followeeUserId, b.firstName AS followeeFirstName,
+                   b.lastName AS followeeLastName, b.email AS followeeEmail
+            """;
+
+    public record CreatedFollow(String followerId, String followerUserId, String followerFirstName,
+                                String followerLastName, String followerImageUrl,
+                                String followeeId, String followeeUserId, String followeeFirstName,
+                                String followeeLastName, String followeeEmail) {
+    }
+
+    Neo4jClient neo4jClient;
+
+    public List<UserSummaryResponse> findFollowers(String profileId, int skip, int limit) {
+        return fetchSummaries("""
+                MATCH (f:user_profile)-[:follows]->(:user_profile {id: $id})
+                RETURN %s
+                SKIP $skip LIMIT $limit
+                """.formatted(SUMMARY_PROJECTION), Map.of("id", profileId, "skip", skip, "limit", limit));
+    }
+
+    public List<UserSummaryResponse> findFollowing(String profileId, int skip, int limit) {
+        return fetchSummaries("""
+                MATCH (:user_profile {id: $id})-[:follows]->(f:user_profile)
+                RETURN %s
+                SKIP $skip LIMIT $limit
+                """.formatted(SUMMARY_PROJECTION), Map.of("id", profileId, "skip", skip, "limit", limit));
+    }
+
+    public List<UserSummaryResponse> findSummariesByIds(Collection<String> profileIds) {
+        return fetchSummaries("MATCH (f:user_profile) WHERE f.id IN $ids RETURN " + SUMMARY_PROJECTION,
+                Map.of("ids", List.copyOf(profileIds)));
+    }
+
+    // followeeIds phải đã loại trùng, nếu không cùng một cặp sẽ bị đếm là "mới tạo" hai lần
+    public List<CreatedFollow> followAll(String followerId, Collection<String> followeeIds) {
+        List<Map<String, Object>> edges = followeeIds.stream()
+                .map(followeeId -> Map.<String, Object>of("from", followerId, "to", followeeId))
+                .toList();
+        return mergeEdges("id", edges);
+    }
+
+    // Import theo user_id (dữ liệu migrate / danh bạ chỉ có userId của identity-service)
+    public List<CreatedFollow> followAllByUserId(Collection<Map.Entry<String, String>> userIdEdges) {
+        List<Map<String, Object>> edges = userIdEdges.stream()
+                .map(edge -> Map.<String, Object>of("from", edge.getKey(), "to", edge.getValue()))
+                .toList();
+        return mergeEdges("user_id", edges);
+    }
+
+    public long countFollowers(String profileId) {
+        return neo4jClient.query("MATCH (:user_profile)-[r:follows]->(:user_profile {id: $id}) RETURN count(r)")
+                .bind(profileId).to("id")
+                .fetchAs(Long.class)
+                .one()
+                .orElse(0L);
+    }
+
+    public long countFollowing(String profileId) {
+        return neo4jClient.query("MATCH (:user_profile {id: $id})-[r:follows]->(:user_profile) RETURN count(r)")
+                .bind(profileId).to("id")
+                .fetchAs(Long.class)
+                .one()
+                .orElse(0L);
+    }
+
+    public boolean isFollowing(String followerUserId, String profileId) {
+        return neo4jClient.query("""
+                        MATCH (:user_profile {user_id: $userId})-[r:follows]->(:user_profile {id: $id})
+                        RETURN count(r) > 0
+                        """)
+                .bindAll(Map.of("userId", followerUserId, "id", profileId))
+                .fetchAs(Boolean.class)
+                .one()
+                .orElse(false);
+    }
+
+    private List<UserSummaryResponse> fetchSummaries(String cypher, Map<String, Object> params) {
+        Collection<UserSummaryResponse> result = neo4jClient.query(cypher)
+                .bindAll(params)
+                .fetchAs(UserSummaryResponse.class)
+                .mappedBy((typeSystem, record) -> toSummary(record))
+                .all();
+        return List.copyOf(result);
+    }
+
+    private List<CreatedFollow> mergeEdges(String keyProperty, List<Map<String, Object>> edges) {
+        if (edges.isEmpty()) {
+            return List.of();
+        }
+        Collection<CreatedFollow> result = neo4jClient.query(MERGE_EDGES.formatted(keyProperty))
+                .bind(edges).to("edges")
+                .fetchAs(CreatedFollow.class)
+                .mappedBy((typeSystem, record) -> new CreatedFollow(
+                        record.get("followerId").asString(null),
+                        record.get("followerUserId").asString(null),
+                        record.get("followerFirstName").asString(null),
+                        record.get("followerLastName").asString(null),
+                        record.get("followerImageUrl").asString(null),
+                        record.get("followeeId").asString(null),
+                        record.get("followeeUserId").asString(null),
+                        record.get("followeeFirstName").asString(null),
+                        record.get("followeeLastName").asString(null),
+                        record.get("followeeEmail").asString(null)))
+                .all();
+        return List.copyOf(result);
+    }
+
+    static UserSummaryResponse toSummary(Record record) {
+        return UserSummaryResponse.builder()
+                .id(record.get("id").asString(null))
+                .userId(record.get("userId").asString(null))
+                .username(record.get("username").asString(null))
+                .firstName(record.get("firstName").asString(null))
+                .lastName(record.get("lastName").asString(null))
+                .imageUrl(record.get("imageUrl").asString(null))
+                .build();
+    }
+}
@@ -0,0 +1,109 @@
+package com.blur.profileservice.repository;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Các traversal trên đồ thị follows phục vụ gợi ý "người bạn có thể biết"
+@Repository
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class RecommendationRepository {
+    Neo4jClient neo4jClient;
+
+    public List<String> findProfileIdsAfter(String lastId, int limit) {
+        Collection<String> ids = neo4jClient.query("""
+                        MATCH (u:user_profile)
+                        WHERE u.id > $lastId
+                        RETURN u.id
+                        ORDER BY u.id
+                        LIMIT $limit
+                        """)
+                .bindAll(Map.of("lastId", lastId, "limit", limit))
+                .fetchAs(String.class)
+                .all();
+        return List.copyOf(ids);
+    }
+
+    // Friends-of-friends cho cả một batch user: ứng viên được xếp theo số người trung gian (mutual)
+    public Map<String, Map<String, Long>> findFriendsOfFriends(Collection<String> profileIds, int limitPerUser) {
+        Collection<Candidate> candidates = neo4jClient.query("""
+                        UNWIND $ids AS profileId
+                        MATCH (me:user_profile {id: profileId})
+                        CALL {
+                            WITH me
+                            MATCH (me)-[:follows]->(:user_profile)-[:follows]->(c:user_profile)
+                            WHERE c <> me AND NOT (me)-[:follows]->(c)
+                            RETURN c.id AS candidateId, count(*) AS mutual
+                            ORDER BY mutual DESC
+                            LIMIT $limit
+                        }
+                        RETURN me.id AS profileId, candidateId, mutual
+                        """)
+                .bindAll(Map.of("ids", List.copyOf(profileIds), "limit", limitPerUser))
+                .fetchAs(Candidate.class)
+                .mappedBy((typeSystem, record) -> new Candidate(
+                        record.get("profileId").asString(),
+                        record.get("candidateId").asString(),
+                        record.get("mutual").asLong()))
+                .all();
+
+        Map<String, Map<String, Long>> result = new LinkedHashMap<>();
+        for (Candidate candidate : candidates) {
+            result.computeIfAbsent(candidate.profileId(), k -> new LinkedHashMap<>())
+                    .put(candidate.candidateId(), candidate.mutual());
+        }
+        return result;
+    }
+
+    // Những người mà followee đang follow, là ứng viên mới của follower sau khi follow
+    public List<String> findFollowingOfExcluding(String followeeId, String followerId, int limit) {
+        Collection<String> ids = neo4jClient.query("""
+                        MATCH (me:user_profile {id: $followerId})
+                        MATCH (:user_profile {id: $followeeId})-[:follows]->(c:user_profile)
+                        WHERE c <> me AND NOT (me)-[:follows]->(c)
+                        RETURN c.id
+                        LIMIT $limit
+                        """)
+                .bindAll(Map.of("followeeId", followeeId, "followerId", followerId, "limit", limit))
+                .fetchAs(String.class)
+                .all();
+        return List.copyOf(ids);
+    }
+
+    // Follower của người vừa follow, followee trở thành ứng viên của họ
+    public List<String> findFollowerIdsNotFollowing(String profileId, String candidateId, int limit) {
+        Collection<String> ids = neo4jClient.query("""
+                        MATCH (c:user_profile {id: $candidateId})
+                        MATCH (f:user_profile)-[:follows]->(:user_profile {id: $profileId})
+                        WHERE f <> c AND NOT (f)-[:follows]->(c)
+                        RETURN f.id
+                        LIMIT $limit
+                        """)
+                .bindAll(Map.of("profileId", profileId, "candidateId", candidateId, "limit", limit))
+                .fetchAs(String.class)
+                .all();
+        return List.copyOf(ids);
+    }
+
+    public long countMutual(String profileId, String candidateId) {
+        return neo4jClient.query("""
+                        MATCH (:user_profile {id: $profileId})-[:follows]->(m:user_profile)-[:follows]->(:user_profile {id: $candidateId})
+                        RETURN count(m)
+                        """)
+                .bindAll(Map.of("profileId", profileId, "candidateId", candidateId))
+                .fetchAs(Long.class)
+                .one()
+                .orElse(0L);
+    }
+
+    private record Candidate(String profileId, String candidateId, long mutual) {
+    }
+}
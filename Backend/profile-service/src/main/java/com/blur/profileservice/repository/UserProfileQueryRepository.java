@@ -0,0 +1,127 @@
+package com.blur.profileservice.repository;
+
+import com.blur.profileservice.dto.response.UserProfileResponse;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.neo4j.driver.Record;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Đọc/ghi property của user_profile bằng Cypher trực tiếp, không đi qua aggregate UserProfile
+// nên không bao giờ load hay ghi đè các quan hệ follows
+@Repository
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class UserProfileQueryRepository {
+    private static final String PROFILE_PROJECTION =
+            "u.id AS id, u.user_id AS userId, u.username AS username, " +
+            "u.firstName AS firstName, u.lastName AS lastName, u.bio AS bio, u.city AS city, " +
+            "u.phone AS phone, u.email AS email, u.gender AS gender, u.website AS website, " +
+            "u.imageUrl AS imageUrl, u.address AS address, u.dob AS dob, " +
+            "u.updatedAt AS updatedAt, u.createdAt AS createdAt";
+
+    Neo4jClient neo4jClient;
+
+    public Optional<UserProfileResponse> findById(String id) {
+        return fetchOne("MATCH (u:user_profile {id: $id}) RETURN " + PROFILE_PROJECTION, Map.of("id", id));
+    }
+
+    public Optional<UserProfileResponse> findByUserId(String userId) {
+        return fetchOne("MATCH (u:user_profile {user_id: $userId}) RETURN " + PROFILE_PROJECTION,
+                Map.of("userId", userId));
+    }
+
+    // Một query duy nhất cho cả batch, userId không tồn tại thì đơn giản là không có dòng trả về
+    public List<UserProfileResponse> findAllByUserIds(Collection<String> userIds) {
+        Collection<UserProfileResponse> result = neo4jClient.query("""
+                        UNWIND $userIds AS userId
+                        MATCH (u:user_profile {user_id: userId})
+                        RETURN %s
+                        """.formatted(PROFILE_PROJECTION))
+                .bind(List.copyOf(userIds)).to("userIds")
+                .fetchAs(UserProfileResponse.class)
+                .mappedBy((typeSystem, record) -> toProfile(record))
+                .all();
+        return List.copyOf(result);
+    }
+
+    public List<UserProfileResponse> findAll() {
+        Collection<UserProfileResponse> result = neo4jClient.query("MATCH (u:user_profile) RETURN " + PROFILE_PROJECTION)
+                .fetchAs(UserProfileResponse.class)
+                .mappedBy((typeSystem, record) -> toProfile(record))
+                .all();
+        return List.copyOf(result);
+    }
+
+    public Optional<String> findIdByUserId(String userId) {
+        return neo4jClient.query("MATCH (u:user_profile {user_id: $userId}) RETURN u.id")
+                .bind(userId).to("userId")
+                .fetchAs(String.class)
+                .one();
+    }
+
+    public Optional<String> findUserIdById(String id) {
+        return neo4jClient.query("MATCH (u:user_profile {id: $id}) RETURN u.user_id")
+                .bind(id).to("id")
+                .fetchAs(String.class)
+                .one();
+    }
+
+    // Tạo nhiều profile trong một transaction; MERGE theo user_id nên gửi lại cùng batch không tạo trùng
+    public long createAll(List<Map<String, Object>> profiles) {
+        return neo4jClient.query("""
+                        UNWIND $profiles AS p
+                        MERGE (u:user_profile {user_id: p.user_id})
+                        ON CREATE SET u += p, u.id = randomUUID()
+                        RETURN count(u)
+                        """)
+                .bind(profiles).to("profiles")
+                .fetchAs(Long.class)
+                .one()
+                .orElse(0L);
+    }
+
+    // SET u += $properties chỉ chạm vào các property được truyền vào, giá trị null sẽ xoá property
+    public Optional<UserProfileResponse> updateProperties(String id, Map<String, Object> properties) {
+        return fetchOne("""
+                MATCH (u:user_profile {id: $id})
+                SET u += $properties
+                RETURN %s
+                """.formatted(PROFILE_PROJECTION), Map.of("id", id, "properties", properties));
+    }
+
+    private Optional<UserProfileResponse> fetchOne(String cypher, Map<String, Object> params) {
+        return neo4jClient.query(cypher)
+                .bindAll(params)
+                .fetchAs(UserProfileResponse.class)
+                .mappedBy((typeSystem, record) -> toProfile(record))
+                .one();
+    }
+
+    static UserProfileResponse toProfile(Record record) {
+        return UserProfileResponse.builder()
+                .id(record.get("id").asString(null))
+                .userId(record.get("userId").asString(null))
+                .username(record.get("username").asString(null))
+                .firstName(record.get("firstName").asString(null))
+                .lastName(record.get("lastName").asString(null))
+                .bio(record.get("bio").asString(null))
+                .city(record.get("city").asString(null))
+                .phone(record.get("phone").asString(null))
+                .email(record.get("email").asString(null))
+                .gender(record.get("gender").asString(null))
+                .website(record.get("website").asString(null))
+                .imageUrl(record.get("imageUrl").asString(null))
+                .address(record.get("address").asString(null))
+                .dob(record.get("dob").asLocalDate(null))
+                .updatedAt(record.get("updatedAt").asLocalDate(null))
+                .createdAt(record.get("createdAt").asLocalDate(null))
+                .build();
+    }
+}
@@ -13,33 +13,21 @@ import java.util.Optional;
 
 @Repository
 public interface UserProfileRepository extends Neo4jRepository<UserProfile, String> {
-    Optional<UserProfile> findUserProfileByUserId(String userId);
-
-    Optional<UserProfile> findUserProfileById(String id);
-
-    @Query("MATCH (u:user_profile)-[:follows]->(f:user_profile) WHERE u.id = $id RETURN f")
-    List<UserProfile> findAllFollowingById(String id);
-
-    @Query("MATCH (f:user_profile)-[:follows]->(u:user_profile) WHERE u.id = $id RETURN f")
-    List<UserProfile> findAllFollowersById(@Param("id") String id);
-
-    Optional<UserProfile> findByUserId(String userId);
-
-    List<UserProfile> findAllByFirstNameContainingIgnoreCase(String firstName);
-
     @Query("""
             MATCH (a:user_profile {id: $fromId})
             MATCH (b:user_profile {id: $toId})
+            OPTIONAL MATCH (a)-[existing:follows]->(b)
+            WITH a, b, existing IS NULL AS created
             MERGE (a)-[:follows]->(b)
+            RETURN created
             """)
-    void follow(@Param("fromId") String fromId, @Param("toId") String toId);
+    Boolean follow(@Param("fromId") String fromId, @Param("toId") String toId);
 
     @Query("""
             MATCH (a:user_profile {id: $fromId})-[r:follows]->(b:user_profile {id: $toId})
             DELETE r
+            RETURN count(r)
             """)
-    void unfollow(@Param("fromId") String fromId, @Param("toId") String toId);
-
-    List<UserProfile> findAllByUsernameLike(String username);
+    Long unfollow(@Param("fromId") String fromId, @Param("toId") String toId);
 
 }
@@ -0,0 +1,38 @@
+package com.blur.profileservice.repository;
+
+import com.blur.profileservice.configuration.Neo4jSchemaInitializer;
+import com.blur.profileservice.dto.response.UserSummaryResponse;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class UserSearchRepository {
+    Neo4jClient neo4jClient;
+
+    // Tìm qua full-text index (username, firstName, lastName), xếp hạng theo score của Lucene
+    public List<UserSummaryResponse> search(String luceneQuery, int limit) {
+        Collection<UserSummaryResponse> result = neo4jClient.query("""
+                        CALL db.index.fulltext.queryNodes($index, $query, {limit: $limit}) YIELD node, score
+                        RETURN node.id AS id, node.user_id AS userId, node.username AS username,
+                               node.firstName AS firstName, node.lastName AS lastName, node.imageUrl AS imageUrl
+                        ORDER BY score DESC, node.username
+                        """)
+                .bindAll(Map.of(
+                        "index", Neo4jSchemaInitializer.USER_SEARCH_INDEX,
+                        "query", luceneQuery,
+                        "limit", limit))
+                .fetchAs(UserSummaryResponse.class)
+                .mappedBy((typeSystem, record) -> FollowRepository.toSummary(record))
+                .all();
+        return List.copyOf(result);
+    }
+}
@@ -0,0 +1,126 @@
+package com.blur.profileservice.service;
+
+import com.blur.profileservice.dto.event.Event;
+import com.blur.profileservice.dto.response.BulkFollowResponse;
+import com.blur.profileservice.exception.AppException;
+import com.blur.profileservice.exception.ErrorCode;
+import com.blur.profileservice.repository.FollowRepository;
+import com.blur.profileservice.repository.FollowRepository.CreatedFollow;
+import com.blur.profileservice.repository.UserProfileQueryRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+// Follow hàng loạt (import danh bạ, migrate): mỗi batch cạnh là một câu UNWIND + MERGE trong một transaction
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BulkFollowService {
+    UserProfileQueryRepository userProfileQueryRepository;
+    FollowRepository followRepository;
+    FollowCountService followCountService;
+    RecommendationService recommendationService;
+    ProfileEventPublisher profileEventPublisher;
+
+    @NonFinal
+    @Value("${app.follow.bulk-max-size:1000}")
+    int bulkMaxSize;
+
+    @NonFinal
+    @Value("${app.follow.batch-size:5000}")
+    int batchSize;
+
+    public BulkFollowResponse followAll(List<String> profileIds) {
+        String reqUserId = SecurityContextHolder.getContext().getAuthentication().getName();
+        String followerId = userProfileQueryRepository.findIdByUserId(reqUserId)
+                .orElseThrow(() -> new AppException(ErrorCode.USER_PROFILE_NOT_FOUND));
+
+        Set<String> targets = new LinkedHashSet<>();
+        if (profileIds != null) {
+            profileIds.stream()
+                    .filter(Objects::nonNull)
+                    .filter(id -> !id.isBlank())
+                    .filter(id -> !id.equals(followerId))
+                    .forEach(targets::add);
+        }
+        if (targets.size() > bulkMaxSize) {
+            throw new AppException(ErrorCode.BATCH_TOO_LARGE);
+        }
+
+        List<String> ids = List.copyOf(targets);
+        List<CreatedFollow> created = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            created.addAll(followRepository.followAll(followerId, ids.subList(from, Math.min(from + batchSize, ids.size()))));
+        }
+        afterFollows(created, true);
+        if (!created.isEmpty()) {
+            recommendationService.invalidate(followerId);
+        }
+        log.info("User {} bulk-followed {} of {} profiles", followerId, created.size(), ids.size());
+
+        return BulkFollowResponse.builder()
+                .requested(ids.size())
+                .followed(created.size())
+                .build();
+    }
+
+    // Một batch của tool import; caller tự chia batch theo app.follow.batch-size và loại cặp trùng
+    public int importBatch(Collection<Map.Entry<String, String>> userIdEdges, boolean notify) {
+        List<CreatedFollow> created = followRepository.followAllByUserId(userIdEdges);
+        afterFollows(created, notify);
+        return created.size();
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    private void afterFollows(List<CreatedFollow> created, boolean notify) {
+        if (created.isEmpty()) {
+            return;
+        }
+        Set<String> touched = new HashSet<>();
+        for (CreatedFollow follow : created) {
+            touched.add(follow.followerId());
+            touched.add(follow.followeeId());
+        }
+        followCountService.evict(touched);
+
+        if (notify) {
+            // KafkaTemplate.send không chặn, notification-service xử lý bất đồng bộ
+            created.forEach(follow -> profileEventPublisher.publishFollow(toEvent(follow)));
+        }
+    }
+
+    private Event toEvent(CreatedFollow follow) {
+        return Event.builder()
+                .senderId(follow.followerId())
+                .senderUserId(follow.followerUserId())
+                .senderName(follow.followerFirstName() + " " + follow.followerLastName())
+                .senderFirstName(follow.followerFirstName())
+                .senderLastName(follow.followerLastName())
+                .senderImageUrl(follow.followerImageUrl())
+                .receiverId(follow.followeeId())
+                .receiverUserId(follow.followeeUserId())
+                .receiverName(follow.followeeFirstName() + " " + follow.followeeLastName())
+                .receiverEmail(follow.followeeEmail())
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.blur.profileservice.service;
+
+import com.blur.profileservice.repository.FollowRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+// Cache số follower/following, cập nhật khi follow/unfollow thay vì đếm lại trên Neo4j
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class FollowCountService {
+    private static final String FOLLOWER_COUNT_PREFIX = "profile:follower-count:";
+    private static final String FOLLOWING_COUNT_PREFIX = "profile:following-count:";
+    private static final Duration COUNT_TTL = Duration.ofDays(1);
+
+    // Chỉ cộng/trừ khi key đã có, tránh tạo counter sai khi cache đã hết hạn
+    private static final RedisScript<Long> INCR_IF_PRESENT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then " +
+                    "local v = redis.call('INCRBY', KEYS[1], ARGV[1]) " +
+                    "if v < 0 then redis.call('INCRBY', KEYS[1], -v) v = 0 end " +
+                    "return v " +
+                    "end " +
+                    "return -1",
+            Long.class);
+
+    StringRedisTemplate stringRedisTemplate;
+    FollowRepository followRepository;
+
+    public long getFollowerCount(String profileId) {
+        return getOrLoad(FOLLOWER_COUNT_PREFIX + profileId, () -> followRepository.countFollowers(profileId));
+    }
+
+    public long getFollowingCount(String profileId) {
+        return getOrLoad(FOLLOWING_COUNT_PREFIX + profileId, () -> followRepository.countFollowing(profileId));
+    }
+
+    public void onFollow(String followerId, String followeeId) {
+        adjust(FOLLOWING_COUNT_PREFIX + followerId, 1);
+        adjust(FOLLOWER_COUNT_PREFIX + followeeId, 1);
+    }
+
+    public void onUnfollow(String followerId, String followeeId) {
+        adjust(FOLLOWING_COUNT_PREFIX + followerId, -1);
+        adjust(FOLLOWER_COUNT_PREFIX + followeeId, -1);
+    }
+
+    // Follow hàng loạt: xoá counter thay vì cộng từng cạnh, lần đọc sau sẽ đếm lại
+    public void evict(Collection<String> profileIds) {
+        if (profileIds.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(profileIds.size() * 2);
+        for (String profileId : profileIds) {
+            keys.add(FOLLOWER_COUNT_PREFIX + profileId);
+            keys.add(FOLLOWING_COUNT_PREFIX + profileId);
+        }
+        try {
+            stringRedisTemplate.delete(keys);
+        } catch (Exception e) {
+            log.warn("Cannot evict follow counts: {}", e.getMessage());
+        }
+    }
+
+    private long getOrLoad(String key, LongSupplier loader) {
+        try {
+            String cached = stringRedisTemplate.opsForValue().get(key);
+            if (cached != null) {
+                return Long.parseLong(cached);
+            }
+        } catch (Exception e) {
+            log.warn("Cannot read follow count {}: {}", key, e.getMessage());
+        }
+
+        long count = loader.getAsLong();
+        try {
+            stringRedisTemplate.opsForValue().setIfAbsent(key, String.valueOf(count), COUNT_TTL);
+        } catch (Exception e) {
+            log.warn("Cannot cache follow count {}: {}", key, e.getMessage());
+        }
+        return count;
+    }
+
+    private void adjust(String key, long delta) {
+        try {
+            stringRedisTemplate.execute(INCR_IF_PRESENT, List.of(key), String.valueOf(delta));
+        } catch (Exception e) {
+            log.warn("Cannot adjust follow count {}: {}", key, e.getMessage());
+            try {
+                stringRedisTemplate.delete(key);
+            } catch (Exception ignored) {
+                // Redis không khả dụng, lần đọc sau sẽ đếm lại
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.blur.profileservice.service;
+
+import com.blur.profileservice.dto.response.UserProfileResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+// Cache profile theo userId và profileId trong Redis, đọc/ghi nhiều key trong một round trip (MGET / pipeline)
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ProfileCacheService {
+    private static final String USER_KEY_PREFIX = "profile:by-user:";
+    private static final String ID_KEY_PREFIX = "profile:by-id:";
+
+    StringRedisTemplate stringRedisTemplate;
+    ObjectMapper objectMapper;
+    MeterRegistry meterRegistry;
+
+    @NonFinal
+    @Value("${app.profile-cache.ttl:PT15M}")
+    Duration ttl;
+
+    @NonFinal
+    Counter hits;
+    @NonFinal
+    Counter misses;
+    @NonFinal
+    Timer readTimer;
+    @NonFinal
+    Timer loadTimer;
+
+    @PostConstruct
+    void registerMeters() {
+        hits = Counter.builder("profile.cache.requests").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("profile.cache.requests").tag("result", "miss").register(meterRegistry);
+        readTimer = Timer.builder("profile.cache.latency").tag("source", "redis").register(meterRegistry);
+        loadTimer = Timer.builder("profile.cache.latency").tag("source", "neo4j").register(meterRegistry);
+    }
+
+    // Read-through theo userId: hit thì trả luôn, miss thì gọi loader rồi ghi lại cả 2 key
+    public Optional<UserProfileResponse> getByUserId(String userId, Supplier<Optional<UserProfileResponse>> loader) {
+        return readThrough(userKey(userId), loader);
+    }
+
+    // Read-through theo profileId (getUserProfile, trang profile của người khác)
+    public Optional<UserProfileResponse> getById(String profileId, Supplier<Optional<UserProfileResponse>> loader) {
+        return readThrough(idKey(profileId), loader);
+    }
+
+    public Map<String, UserProfileResponse> getAllByUserId(Collection<String> userIds) {
+        Map<String, UserProfileResponse> found = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return found;
+        }
+
+        List<String> ids = List.copyOf(userIds);
+        List<String> values;
+        try {
+            values = readTimer.record(() ->
+                    stringRedisTemplate.opsForValue().multiGet(ids.stream().map(this::userKey).toList()));
+        } catch (Exception e) {
+            log.warn("Cannot read profile cache: {}", e.getMessage());
+            return found;
+        }
+        if (values == null) {
+            return found;
+        }
+
+        for (int i = 0; i < ids.size(); i++) {
+            UserProfileResponse profile = fromJson(ids.get(i), values.get(i));
+            if (profile != null) {
+                found.put(ids.get(i), profile);
+            }
+        }
+        hits.increment(found.size());
+        misses.increment(ids.size() - found.size());
+        return found;
+    }
+
+    public void putAll(Collection<UserProfileResponse> profiles) {
+        if (profiles.isEmpty()) {
+            return;
+        }
+        long ttlSeconds = ttl.getSeconds();
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                for (UserProfileResponse profile : profiles) {
+                    String json = toJson(profile);
+                    if (json == null) {
+                        continue;
+                    }
+                    if (profile.getUserId() != null) {
+                        redis.setEx(userKey(profile.getUserId()), ttlSeconds, json);
+                    }
+                    if (profile.getId() != null) {
+                        redis.setEx(idKey(profile.getId()), ttlSeconds, json);
+                    }
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Cannot write profile cache: {}", e.getMessage());
+        }
+    }
+
+    public void put(UserProfileResponse profile) {
+        putAll(List.of(profile));
+    }
+
+    public void evict(String profileId, String userId) {
+        List<String> keys = new ArrayList<>(2);
+        if (profileId != null) {
+            keys.add(idKey(profileId));
+        }
+        if (userId != null) {
+            keys.add(userKey(userId));
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.delete(keys);
+        } catch (Exception e) {
+            log.warn("Cannot evict cached profile {}: {}", profileId, e.getMessage());
+        }
+    }
+
+    private Optional<UserProfileResponse> readThrough(String key, Supplier<Optional<UserProfileResponse>> loader) {
+        UserProfileResponse cached = null;
+        try {
+            cached = fromJson(key, readTimer.record(() -> stringRedisTemplate.opsForValue().get(key)));
+        } catch (Exception e) {
+            // Redis lỗi thì vẫn phục vụ từ Neo4j, không làm hỏng request
+            log.warn("Cannot read profile cache: {}", e.getMessage());
+        }
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+
+        misses.increment();
+        Optional<UserProfileResponse> loaded = loadTimer.record(loader);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    private UserProfileResponse fromJson(String key, String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, UserProfileResponse.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Dropping unreadable cached profile {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private String toJson(UserProfileResponse profile) {
+        try {
+            return objectMapper.writeValueAsString(profile);
+        } catch (JsonProcessingException e) {
+            log.warn("Cannot serialize profile {}: {}", profile.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private String userKey(String userId) {
+        return USER_KEY_PREFIX + userId;
+    }
+
+    private String idKey(String profileId) {
+        return ID_KEY_PREFIX + profileId;
+    }
+}
@@ -0,0 +1,59 @@
+package com.blur.profileservice.service;
+
+import com.blur.profileservice.dto.event.Event;
+import com.blur.profileservice.dto.event.ProfileUpdatedEvent;
+import com.blur.profileservice.dto.response.UserProfileResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ProfileEventPublisher {
+    public static final String PROFILE_UPDATED_TOPIC = "profile-updated-events";
+    public static final String FOLLOW_TOPIC = "user-follow-events";
+
+    KafkaTemplate<String, String> kafkaTemplate;
+    ObjectMapper objectMapper;
+
+    // Key = userId để các lần cập nhật của cùng một user vào cùng partition, consumer nhận đúng thứ tự
+    public void publishProfileUpdated(UserProfileResponse profile) {
+        ProfileUpdatedEvent event = ProfileUpdatedEvent.builder()
+                .profileId(profile.getId())
+                .userId(profile.getUserId())
+                .username(profile.getUsername())
+                .firstName(profile.getFirstName())
+                .lastName(profile.getLastName())
+                .imageUrl(profile.getImageUrl())
+                .updatedAt(Instant.now())
+                .build();
+        send(PROFILE_UPDATED_TOPIC, profile.getUserId(), event);
+    }
+
+    // Gửi thẳng vào topic notification-service đang consume, không chờ HTTP call tới /notification/follow
+    public void publishFollow(Event event) {
+        send(FOLLOW_TOPIC, event.getReceiverUserId(), event);
+    }
+
+    private void send(String topic, String key, Object event) {
+        try {
+            kafkaTemplate.send(topic, key, objectMapper.writeValueAsString(event))
+                    .whenComplete((result, ex) -> {
+                        if (ex != null) {
+                            log.error("Cannot publish {} event for {}: {}", topic, key, ex.getMessage());
+                        }
+                    });
+        } catch (JsonProcessingException e) {
+            log.error("Cannot serialize {} event for {}: {}", topic, key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.blur.profileservice.service;
+
+import com.blur.profileservice.dto.response.RecommendationResponse;
+import com.blur.profileservice.dto.response.UserSummaryResponse;
+import com.blur.profileservice.repository.FollowRepository;
+import com.blur.profileservice.repository.RecommendationRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Gợi ý "người bạn có thể biết": tính friends-of-friends theo batch định kỳ, lưu mỗi user một ZSET trong Redis
+// (member = profileId ứng viên, score = số người trung gian) và cập nhật dần khi follow/unfollow
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class RecommendationService {
+    private static final String KEY_PREFIX = "profile:recommendations:";
+    private static final String REFRESH_LOCK_KEY = "profile:recommendations:refresh-lock";
+    // Đánh dấu đã tính nhưng không có ứng viên, để không phải tính lại mỗi lần đọc
+    private static final String EMPTY_MARKER = "__empty__";
+
+    // Cộng/trừ score cho nhiều ứng viên, chỉ khi danh sách gợi ý đã tồn tại; score <= 0 thì bỏ khỏi gợi ý.
+    // ARGV: delta, maxCandidates, EMPTY_MARKER, các ứng viên. Sau khi cộng thì bỏ marker (nếu có)
+    // và cắt về maxCandidates ứng viên score cao nhất để ZSET không phình theo số lần follow
+    private static final RedisScript<Long> ADJUST_IF_PRESENT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end " +
+                    "local delta = tonumber(ARGV[1]) " +
+                    "local max = tonumber(ARGV[2]) " +
+                    "for i = 4, #ARGV do " +
+                    "local score = tonumber(redis.call('ZINCRBY', KEYS[1], delta, ARGV[i])) " +
+                    "if score <= 0 then redis.call('ZREM', KEYS[1], ARGV[i]) end " +
+                    "end " +
+                    "if delta > 0 then " +
+                    "redis.call('ZREM', KEYS[1], ARGV[3]) " +
+                    "redis.call('ZREMRANGEBYRANK', KEYS[1], 0, -(max + 1)) " +
+                    "end " +
+                    "return 1",
+            Long.class);
+
+    // Chỉ xoá lock nếu vẫn là token của lượt chạy này (lock có thể đã hết hạn và replica khác đang giữ)
+    private static final RedisScript<Long> RELEASE_LOCK = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end " +
+                    "return 0",
+            Long.class);
+
+    StringRedisTemplate stringRedisTemplate;
+    RecommendationRepository recommendationRepository;
+    FollowRepository followRepository;
+
+    @NonFinal
+    @Value("${app.recommendation.max-candidates:50}")
+    int maxCandidates;
+
+    @NonFinal
+    @Value("${app.recommendation.batch-size:200}")
+    int batchSize;
+
+    @NonFinal
+    @Value("${app.recommendation.ttl:PT24H}")
+    Duration ttl;
+
+    @NonFinal
+    @Value("${app.recommendation.max-fan-out:500}")
+    int maxFanOut;
+
+    public List<RecommendationResponse> getRecommendations(String profileId, int limit) {
+        String key = KEY_PREFIX + profileId;
+        int size = Math.max(1, Math.min(limit, maxCandidates));
+
+        Set<ZSetOperations.TypedTuple<String>> tuples = stringRedisTemplate.opsForZSet()
+                .reverseRangeWithScores(key, 0, size);
+        if (tuples == null || tuples.isEmpty()) {
+            // Chưa có trong cache (user mới hoặc đã hết TTL): tính riêng cho user này một lần
+            refresh(List.of(profileId));
+            tuples = stringRedisTemplate.opsForZSet().reverseRangeWithScores(key, 0, size);
+        }
+        if (tuples == null || tuples.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<ZSetOperations.TypedTuple<String>> ranked = tuples.stream()
+                .filter(tuple -> !EMPTY_MARKER.equals(tuple.getValue()))
+                .limit(size)
+                .toList();
+        if (ranked.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<String, UserSummaryResponse> summaries = followRepository
+                .findSummariesByIds(ranked.stream().map(ZSetOperations.TypedTuple::getValue).toList())
+                .stream()
+                .collect(Collectors.toMap(UserSummaryResponse::getId, Function.identity()));
+
+        List<RecommendationResponse> result = new ArrayList<>(ranked.size());
+        for (ZSetOperations.TypedTuple<String> tuple : ranked) {
+            UserSummaryResponse summary = summaries.get(tuple.getValue());
+            if (summary == null) {
+                continue; // profile đã bị xoá
+            }
+            result.add(RecommendationResponse.builder()
+                    .user(summary)
+                    .mutualCount(tuple.getScore() == null ? 0 : tuple.getScore().longValue())
+                    .build());
+        }
+        return result;
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.recommendation.refresh-interval-ms:3600000}",
+            initialDelayString = "${app.recommendation.initial-delay-ms:60000}")
+    public void refreshAll() {
+        // Chỉ một replica chạy batch tại một thời điểm
+        String lockToken = UUID.randomUUID().toString();
+        Boolean locked = stringRedisTemplate.opsForValue()
+                .setIfAbsent(REFRESH_LOCK_KEY, lockToken, Duration.ofMinutes(30));
+        if (!Boolean.TRUE.equals(locked)) {
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        int processed = 0;
+        try {
+            String lastId = "";
+            List<String> ids;
+            while (!(ids = recommendationRepository.findProfileIdsAfter(lastId, batchSize)).isEmpty()) {
+                refresh(ids);
+                processed += ids.size();
+                lastId = ids.get(ids.size() - 1);
+            }
+            log.info("Refreshed recommendations for {} profiles in {} ms",
+                    processed, System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.error("Recommendation refresh stopped after {} profiles: {}", processed, e.getMessage(), e);
+        } finally {
+            stringRedisTemplate.execute(RELEASE_LOCK, List.of(REFRESH_LOCK_KEY), lockToken);
+        }
+    }
+
+    @Async
+    public void onFollow(String followerId, String followeeId) {
+        try {
+            // Đã follow thì không còn là gợi ý
+            stringRedisTemplate.opsForZSet().remove(KEY_PREFIX + followerId, followeeId);
+
+            // Người followee đang follow trở thành ứng viên (thêm một đường đi) của follower
+            List<String> newCandidates = recommendationRepository
+                    .findFollowingOfExcluding(followeeId, followerId, maxFanOut);
+            adjust(followerId, 1, newCandidates);
+
+            // Follower của follower giờ có thêm một đường đi tới followee
+            for (String fanId : recommendationRepository.findFollowerIdsNotFollowing(followerId, followeeId, maxFanOut)) {
+                adjust(fanId, 1, List.of(followeeId));
+            }
+        } catch (Exception e) {
+            log.warn("Cannot update recommendations after {} followed {}: {}", followerId, followeeId, e.getMessage());
+        }
+    }
+
+    // Sau khi follow hàng loạt: bỏ danh sách cũ, lần đọc sau tính lại (các user khác chờ lần refresh định kỳ)
+    public void invalidate(String profileId) {
+        try {
+            stringRedisTemplate.delete(KEY_PREFIX + profileId);
+        } catch (Exception e) {
+            log.warn("Cannot invalidate recommendations of {}: {}", profileId, e.getMessage());
+        }
+    }
+
+    @Async
+    public void onUnfollow(String followerId, String followeeId) {
+        try {
+            List<String> lostCandidates = recommendationRepository
+                    .findFollowingOfExcluding(followeeId, followerId, maxFanOut);
+            adjust(followerId, -1, lostCandidates);
+
+            for (String fanId : recommendationRepository.findFollowerIdsNotFollowing(followerId, followeeId, maxFanOut)) {
+                adjust(fanId, -1, List.of(followeeId));
+            }
+
+            // Followee có thể quay lại danh sách gợi ý nếu vẫn còn người trung gian
+            long mutual = recommendationRepository.countMutual(followerId, followeeId);
+            String key = KEY_PREFIX + followerId;
+            if (mutual > 0 && Boolean.TRUE.equals(stringRedisTemplate.hasKey(key))) {
+                stringRedisTemplate.opsForZSet().add(key, followeeId, mutual);
+            }
+        } catch (Exception e) {
+            log.warn("Cannot update recommendations after {} unfollowed {}: {}", followerId, followeeId, e.getMessage());
+        }
+    }
+
+    private void refresh(List<String> profileIds) {
+        Map<String, Map<String, Long>> candidates =
+                recommendationRepository.findFriendsOfFriends(profileIds, maxCandidates);
+        long ttlSeconds = ttl.getSeconds();
+
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            for (String profileId : profileIds) {
+                String key = KEY_PREFIX + profileId;
+                redis.del(key);
+                Map<String, Long> scored = candidates.getOrDefault(profileId, Map.of());
+                if (scored.isEmpty()) {
+                    redis.zAdd(key, 0, EMPTY_MARKER);
+                } else {
+                    scored.forEach((candidateId, mutual) -> redis.zAdd(key, mutual, candidateId));
+                }
+                redis.expire(key, ttlSeconds);
+            }
+            return null;
+        });
+    }
+
+    private void adjust(String profileId, long delta, List<String> candidateIds) {
+        if (candidateIds.isEmpty()) {
+            return;
+        }
+        List<String> args = new ArrayList<>(candidateIds.size() + 3);
+        args.add(String.valueOf(delta));
+        args.add(String.valueOf(maxCandidates));
+        args.add(EMPTY_MARKER);
+        args.addAll(candidateIds);
+        try {
+            stringRedisTemplate.execute(ADJUST_IF_PRESENT, List.of(KEY_PREFIX + profileId), args.toArray());
+        } catch (DataAccessException e) {
+            log.warn("Cannot adjust recommendations of {}: {}", profileId, e.getMessage());
+        }
+    }
+}
@@ -4,17 +4,23 @@ import com.blur.profileservice.dto.event.Event;
 import com.blur.profileservice.dto.request.ProfileCreationRequest;
 import com.blur.profileservice.dto.request.SearchUserRequest;
 import com.blur.profileservice.dto.request.UserProfileUpdateRequest;
+import com.blur.profileservice.dto.response.FollowStatsResponse;
+import com.blur.profileservice.dto.response.RecommendationResponse;
 import com.blur.profileservice.dto.response.UserProfileResponse;
+import com.blur.profileservice.dto.response.UserSummaryResponse;
 import com.blur.profileservice.entity.UserProfile;
 import com.blur.profileservice.exception.AppException;
 import com.blur.profileservice.exception.ErrorCode;
 import com.blur.profileservice.mapper.UserProfileMapper;
+import com.blur.profileservice.repository.FollowRepository;
+import com.blur.profileservice.repository.UserProfileQueryRepository;
 import com.blur.profileservice.repository.UserProfileRepository;
-import com.blur.profileservice.repository.httpclient.NotificationClient;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
@@ -27,7 +33,13 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 
 @Service
@@ -35,9 +47,26 @@ import java.util.List;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 @Slf4j
 public class UserProfileService {
+    private static final int DEFAULT_FOLLOW_PAGE_SIZE = 20;
+    private static final int MAX_FOLLOW_PAGE_SIZE = 100;
+
     UserProfileRepository userProfileRepository;
+    UserProfileQueryRepository userProfileQueryRepository;
+    UserSearchService userSearchService;
+    ProfileCacheService profileCacheService;
+    ProfileEventPublisher profileEventPublisher;
+    FollowRepository followRepository;
+    FollowCountService followCountService;
+    RecommendationService recommendationService;
+
+    @NonFinal
+    @Value("${app.internal.batch-max-size:200}")
+    int batchMaxSize;
+
+    @NonFinal
+    @Value("${app.internal.bulk-create-batch-size:1000}")
+    int bulkCreateBatchSize;
     UserProfileMapper userProfileMapper;
-    NotificationClient notificationClient;
 
 
     public UserProfileResponse createProfile(ProfileCreationRequest request) {
@@ -53,53 +82,126 @@ public class UserProfileService {
         return userProfileMapper.toUserProfileResponse(userProfile);
     }
 
-    public UserProfile getUserProfile(String id) {
-        return userProfileRepository.findById(id)
+    // Provision hàng loạt từ identity-service: mỗi batch là một câu UNWIND, không đi qua save() của SDN
+    public long createProfiles(List<ProfileCreationRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            return 0;
+        }
+        LocalDate today = LocalDate.now();
+        List<Map<String, Object>> profiles = new ArrayList<>(requests.size());
+        for (ProfileCreationRequest request : requests) {
+            if (request.getUserId() == null) {
+                continue;
+            }
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("user_id", request.getUserId());
+            properties.put("username", request.getUsername());
+            properties.put("firstName", request.getFirstName());
+            properties.put("lastName", request.getLastName());
+            properties.put("email", request.getEmail());
+            properties.put("dob", request.getDob());
+            properties.put("imageUrl", request.getImageUrl());
+            properties.put("createdAt", today);
+            profiles.add(properties);
+        }
+
+        long created = 0;
+        for (int from = 0; from < profiles.size(); from += bulkCreateBatchSize) {
+            created += userProfileQueryRepository.createAll(
+                    profiles.subList(from, Math.min(from + bulkCreateBatchSize, profiles.size())));
+        }
+        return created;
+    }
+
+    public UserProfileResponse getUserProfile(String id) {
+        return profileCacheService.getById(id, () -> userProfileQueryRepository.findById(id))
                 .orElseThrow(() -> new AppException(ErrorCode.USER_PROFILE_NOT_FOUND));
     }
 
 
-    public List<UserProfileResponse> findUserProfileByFirstName(String firstName) {
-        return userProfileRepository.findAllByFirstNameContainingIgnoreCase(firstName)
-                .stream()
-                .map(userProfileMapper::toUserProfileResponse)
-                .toList();
+    public List<UserSummaryResponse> findUserProfileByFirstName(String firstName, int page, int size) {
+        return userSearchService.search(firstName, null, page, size);
     }
 
     @PreAuthorize("hasRole('ADMIN')")
 
     public List<UserProfileResponse> getAllUserProfiles() {
-        return userProfileRepository.findAll()
-                .stream()
-                .map(userProfileMapper::toUserProfileResponse)
-                .toList();
+        return userProfileQueryRepository.findAll();
     }
 
     public UserProfileResponse getByUserId(String userId) {
-        UserProfile userProfile = userProfileRepository.findByUserId(userId)
+        return profileCacheService.getByUserId(userId, () -> userProfileQueryRepository.findByUserId(userId))
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXIST));
-        return userProfileMapper.toUserProfileResponse(userProfile);
+    }
+
+    // Lookup nhiều userId một lần cho các service render danh sách: Redis trước, phần còn thiếu một query UNWIND
+    public Map<String, UserProfileResponse> getByUserIds(List<String> userIds) {
+        Set<String> ids = new LinkedHashSet<>();
+        if (userIds != null) {
+            userIds.stream()
+                    .filter(Objects::nonNull)
+                    .filter(id -> !id.isBlank())
+                    .forEach(ids::add);
+        }
+        if (ids.size() > batchMaxSize) {
+            throw new AppException(ErrorCode.BATCH_TOO_LARGE);
+        }
+
+        Map<String, UserProfileResponse> result = new HashMap<>(profileCacheService.getAllByUserId(ids));
+        List<String> misses = new ArrayList<>();
+        for (String id : ids) {
+            if (!result.containsKey(id)) {
+                misses.add(id);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            List<UserProfileResponse> loaded = userProfileQueryRepository.findAllByUserIds(misses);
+            loaded.forEach(profile -> result.put(profile.getUserId(), profile));
+            profileCacheService.putAll(loaded);
+        }
+        return result;
     }
 
     public UserProfileResponse myProfile() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String userId = authentication.getName();
 
-        UserProfile userProfile = userProfileRepository.findByUserId(userId)
+        return profileCacheService.getByUserId(userId, () -> userProfileQueryRepository.findByUserId(userId))
                 .orElseThrow(() -> new AppException(ErrorCode.USER_PROFILE_NOT_FOUND));
+    }
 
-        return userProfileMapper.toUserProfileResponse(userProfile);
+    // Chỉ SET các property của node, không save lại cả aggregate (tránh load/ghi các quan hệ follows)
+    public UserProfileResponse updateUserProfile(String userProfileId, UserProfileUpdateRequest request) {
+        UserProfileResponse updated = userProfileQueryRepository.updateProperties(userProfileId, toPropertyMap(request))
+                .orElseThrow(() -> new AppException(ErrorCode.USER_PROFILE_NOT_FOUND));
+        profileCacheService.put(updated);
+        profileEventPublisher.publishProfileUpdated(updated);
+        return updated;
     }
 
-    public UserProfile updateUserProfile(String userProfileId, UserProfileUpdateRequest request) {
-        UserProfile userProfile = getUserProfile(userProfileId);
-        userProfileMapper.updateUserProfile(userProfile, request);
-        return userProfileRepository.save(userProfile);
+    private Map<String, Object> toPropertyMap(UserProfileUpdateRequest request) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("username", request.getUsername());
+        properties.put("firstName", request.getFirstName());
+        properties.put("lastName", request.getLastName());
+        properties.put("bio", request.getBio());
+        properties.put("city", request.getCity());
+        properties.put("phone", request.getPhone());
+        properties.put("email", request.getEmail());
+        properties.put("gender", request.getGender());
+        properties.put("website", request.getWebsite());
+        properties.put("imageUrl", request.getImageUrl());
+        properties.put("address", request.getAddress());
+        properties.put("dob", userProfileMapper.stringToLocalDate(request.getDob()));
+        return properties;
     }
 
 
     public void deleteUserProfile(String userProfileId) {
+        String userId = userProfileQueryRepository.findUserIdById(userProfileId).orElse(null);
         userProfileRepository.deleteById(userProfileId);
+        profileCacheService.evict(userProfileId, userId);
     }
 
     public String followUser(String followerId) {
@@ -110,13 +212,17 @@ public class UserProfileService {
             throw new AppException(ErrorCode.CANNOT_FOLLOW_YOURSELF);
         }
 
-        var requester = userProfileRepository.findUserProfileByUserId(reqUserId)
+        var requester = userProfileQueryRepository.findByUserId(reqUserId)
                 .orElseThrow(() -> new AppException(ErrorCode.USER_PROFILE_NOT_FOUND));
 
-        var followingUser = userProfileRepository.findUserProfileById(followerId)
+        var followingUser = userProfileQueryRepository.findById(followerId)
                 .orElseThrow(() -> new AppException(ErrorCode.USER_PROFILE_NOT_FOUND));
 
-        userProfileRepository.follow(requester.getId(), followerId);
+        Boolean created = userProfileRepository.follow(requester.getId(), followerId);
+        if (Boolean.TRUE.equals(created)) {
+            followCountService.onFollow(requester.getId(), followerId);
+            recommendationService.onFollow(requester.getId(), followerId);
+        }
         log.info("User {} is now following {}", requester.getId(), followerId);
 
         // ✅ GỬI ĐẦY ĐỦ THÔNG TIN
@@ -136,7 +242,7 @@ public class UserProfileService {
 
         log.info("✅ Sending follow event: senderId={}, receiverId={}",
                 event.getSenderId(), event.getReceiverId());
-        notificationClient.sendFollowNotification(event);
+        profileEventPublisher.publishFollow(event);
 
         return "You are following " + followingUser.getFirstName();
     }
@@ -146,41 +252,63 @@ public class UserProfileService {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String reqUserId = authentication.getName();
 
-        var requester = userProfileRepository.findUserProfileByUserId(reqUserId)
+        var requester = userProfileQueryRepository.findByUserId(reqUserId)
                 .orElseThrow(() -> new AppException(ErrorCode.USER_PROFILE_NOT_FOUND));
 
-        var followingUser = userProfileRepository.findUserProfileById(followerId)
+        var followingUser = userProfileQueryRepository.findById(followerId)
                 .orElseThrow(() -> new AppException(ErrorCode.USER_PROFILE_NOT_FOUND));
-        requester.getFollowers().remove(followingUser);
-        userProfileRepository.unfollow(requester.getId(), followerId);
+        Long removed = userProfileRepository.unfollow(requester.getId(), followerId);
+        if (removed != null && removed > 0) {
+            followCountService.onUnfollow(requester.getId(), followerId);
+            recommendationService.onUnfollow(requester.getId(), followerId);
+        }
 
         return "You unfollowed " + followingUser.getFirstName();
     }
 
-    public List<UserProfileResponse> getFollowers(String profileId) {
-        return userProfileRepository.findAllFollowersById(profileId)
-                .stream()
-                .map(userProfileMapper::toUserProfileResponse)
-                .toList();
+    public List<UserSummaryResponse> getFollowers(String profileId, int page, int size) {
+        int limit = normalizePageSize(size);
+        return followRepository.findFollowers(profileId, normalizeSkip(page, limit), limit);
+    }
+
+    public List<UserSummaryResponse> getFollowing(String profileId, int page, int size) {
+        int limit = normalizePageSize(size);
+        return followRepository.findFollowing(profileId, normalizeSkip(page, limit), limit);
+    }
+
+    public FollowStatsResponse getFollowStats(String profileId) {
+        String reqUserId = SecurityContextHolder.getContext().getAuthentication().getName();
+        return FollowStatsResponse.builder()
+                .followerCount(followCountService.getFollowerCount(profileId))
+                .followingCount(followCountService.getFollowingCount(profileId))
+                .followedByMe(followRepository.isFollowing(reqUserId, profileId))
+                .build();
+    }
+
+    public List<RecommendationResponse> getRecommendations(int limit) {
+        String reqUserId = SecurityContextHolder.getContext().getAuthentication().getName();
+        String profileId = userProfileQueryRepository.findIdByUserId(reqUserId)
+                .orElseThrow(() -> new AppException(ErrorCode.USER_PROFILE_NOT_FOUND));
+        return recommendationService.getRecommendations(profileId, limit);
+    }
+
+    private int normalizePageSize(int size) {
+        if (size <= 0) {
+            return DEFAULT_FOLLOW_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_FOLLOW_PAGE_SIZE);
     }
 
-    public List<UserProfileResponse> getFollowing(String profileId) {
-        return userProfileRepository.findAllFollowingById(profileId)
-                .stream()
-                .map(userProfileMapper::toUserProfileResponse)
-                .toList();
+    private int normalizeSkip(int page, int limit) {
+        return (Math.max(page, 1) - 1) * limit;
     }
 
 
 
 
-    public List<UserProfileResponse> search(String request){
+    public List<UserSummaryResponse> search(String request, int page, int size){
         var userId = SecurityContextHolder.getContext().getAuthentication().getName();
-        List<UserProfile>  userProfiles = userProfileRepository.findAllByUsernameLike(request);
-        return  userProfiles.stream()
-                .filter(userProfile -> !userId.equals(userProfile.getUserId()))
-                .map(userProfileMapper::toUserProfileResponse)
-                .toList();
+        return userSearchService.search(request, userId, page, size);
     }
 
     public String getCurrentUserId() {
@@ -188,8 +316,7 @@ public class UserProfileService {
     }
 
     public String getUserIdByProfileId(String profileId) {
-        return userProfileRepository.findById(profileId)
-                .map(UserProfile::getUserId)
+        return userProfileQueryRepository.findUserIdById(profileId)
                 .orElse(null);
     }
 }
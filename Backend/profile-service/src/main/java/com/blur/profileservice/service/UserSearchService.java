@@ -0,0 +1,135 @@
+package com.blur.profileservice.service;
+
+import com.blur.profileservice.dto.response.UserSummaryResponse;
+import com.blur.profileservice.repository.UserSearchRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Typeahead tìm user: full-text index + cache trong bộ nhớ cho các prefix hay được gõ.
+// Mỗi query chỉ lấy tối đa maxResults kết quả đã xếp hạng, các trang được cắt từ danh sách này
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class UserSearchService {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int MAX_QUERY_LENGTH = 50;
+    private static final String LUCENE_SPECIAL_CHARS = "+-&|!(){}[]^\"~*?:\\/";
+
+    UserSearchRepository userSearchRepository;
+
+    @NonFinal
+    @Value("${app.search.max-results:200}")
+    int maxResults;
+
+    @NonFinal
+    @Value("${app.search.cache-size:1000}")
+    int cacheSize;
+
+    @NonFinal
+    @Value("${app.search.cache-ttl:PT30S}")
+    Duration cacheTtl;
+
+    // LRU theo thứ tự truy cập, giới hạn cacheSize entry
+    @NonFinal
+    Map<String, CachedResult> cache;
+
+    @PostConstruct
+    void initCache() {
+        int capacity = cacheSize;
+        cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public List<UserSummaryResponse> search(String rawQuery, String excludeUserId, int page, int size) {
+        String query = normalize(rawQuery);
+        if (query.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        int limit = size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        int skip = (Math.max(page, 1) - 1) * limit;
+        if (skip >= maxResults) {
+            return Collections.emptyList();
+        }
+
+        return rankedResults(query).stream()
+                .filter(user -> excludeUserId == null || !excludeUserId.equals(user.getUserId()))
+                .skip(skip)
+                .limit(limit)
+                .toList();
+    }
+
+    private List<UserSummaryResponse> rankedResults(String query) {
+        long now = System.currentTimeMillis();
+        synchronized (cache) {
+            CachedResult cached = cache.get(query);
+            if (cached != null && cached.expiresAt() > now) {
+                return cached.users();
+            }
+        }
+
+        // +1 để vẫn đủ maxResults sau khi loại chính user đang tìm
+        List<UserSummaryResponse> users = userSearchRepository.search(toLuceneQuery(query), maxResults + 1);
+        synchronized (cache) {
+            cache.put(query, new CachedResult(users, now + cacheTtl.toMillis()));
+        }
+        return users;
+    }
+
+    private String normalize(String rawQuery) {
+        if (rawQuery == null) {
+            return "";
+        }
+        String query = rawQuery.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return query.length() > MAX_QUERY_LENGTH ? query.substring(0, MAX_QUERY_LENGTH) : query;
+    }
+
+    // "ngu van" -> "(ngu^3 OR ngu*) AND (van^3 OR van*)": khớp chính xác được ưu tiên hơn khớp prefix
+    private String toLuceneQuery(String query) {
+        StringBuilder lucene = new StringBuilder();
+        for (String token : query.split(" ")) {
+            String escaped = escape(token);
+            if (escaped.isEmpty()) {
+                continue;
+            }
+            if (!lucene.isEmpty()) {
+                lucene.append(" AND ");
+            }
+            lucene.append('(').append(escaped).append("^3 OR ").append(escaped).append("*)");
+        }
+        return lucene.toString();
+    }
+
+    private String escape(String token) {
+        StringBuilder escaped = new StringBuilder(token.length());
+        for (char c : token.toCharArray()) {
+            if (LUCENE_SPECIAL_CHARS.indexOf(c) >= 0) {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private record CachedResult(List<UserSummaryResponse> users, long expiresAt) {
+    }
+}
@@ -1,30 +1,29 @@
 package com.example.storyservice.configuration;
 
-import com.nimbusds.jwt.SignedJWT;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.stereotype.Component;
 
-import java.text.ParseException;
-
+// Verify chữ ký RS256 bằng public key lấy từ JWKS của identity-service, không cần shared secret hay gọi introspect.
+// NimbusJwtDecoder tự cache JWK Set và chỉ tải lại khi gặp kid chưa biết (sau khi identity rotate key)
 @Component
 public class CustomJwtDecoder implements JwtDecoder {
+    private final NimbusJwtDecoder delegate;
+
+    public CustomJwtDecoder(@Value("${app.jwt.jwks-uri}") String jwkSetUri) {
+        delegate = NimbusJwtDecoder.withJwkSetUri(jwkSetUri)
+                .jwsAlgorithm(SignatureAlgorithm.RS256)
+                .build();
+        delegate.setJwtValidator(JwtValidators.createDefaultWithIssuer("Blur.vn"));
+    }
 
     @Override
     public Jwt decode(String token) throws JwtException {
-        // giai ma token de lay thong tin
-        try {
-            SignedJWT signedJWT = SignedJWT.parse(token);
-            return new Jwt(
-                    token,
-                    signedJWT.getJWTClaimsSet().getIssueTime().toInstant(),
-                    signedJWT.getJWTClaimsSet().getExpirationTime().toInstant(),
-                    signedJWT.getHeader().toJSONObject(),
-                    signedJWT.getJWTClaimsSet().getClaims());
-
-        } catch (ParseException e) {
-            throw new JwtException("Invalid token");
-        }
+        return delegate.decode(token);
     }
 }
@@ -0,0 +1,23 @@
+package com.example.storyservice.dto.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ProfileUpdatedEvent {
+    String profileId;
+    String userId;
+    String username;
+    String firstName;
+    String lastName;
+    String imageUrl;
+    Instant updatedAt;
+}
@@ -0,0 +1,67 @@
+package com.example.storyservice.kafka.consumer;
+
+import com.example.storyservice.dto.event.ProfileUpdatedEvent;
+import com.example.storyservice.entity.Story;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+// Đồng bộ tên tác giả đã lưu trong story khi profile thay đổi
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ProfileUpdatedListener {
+    MongoTemplate mongoTemplate;
+    ObjectMapper objectMapper;
+    CacheManager cacheManager;
+
+    @KafkaListener(topics = "profile-updated-events", groupId = "story-service")
+    public void listen(ConsumerRecord<String, String> record) throws JsonProcessingException {
+        ProfileUpdatedEvent event = objectMapper.readValue(record.value(), ProfileUpdatedEvent.class);
+        if (event.getUserId() == null) {
+            return;
+        }
+
+        long updated = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("authorId").is(event.getUserId())),
+                new Update()
+                        .set("firstName", event.getFirstName())
+                        .set("lastName", event.getLastName()),
+                Story.class).getModifiedCount();
+
+        if (updated > 0) {
+            evict("storiesByUser", event.getUserId());
+            evict("myStories", event.getUserId());
+            clear("stories");
+            clear("storyById");
+        }
+        log.info("Profile {} updated: {} stories refreshed", event.getUserId(), updated);
+    }
+
+    private void evict(String cacheName, String key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
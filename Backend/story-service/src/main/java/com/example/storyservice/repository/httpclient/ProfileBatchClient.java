@@ -0,0 +1,125 @@
+package com.example.storyservice.repository.httpclient;
+
+import com.example.storyservice.dto.response.UserProfileResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Gom các lookup profile đơn lẻ xảy ra đồng thời trong một cửa sổ ngắn thành một lần gọi
+// POST /internal/users/batch; nhiều caller hỏi cùng userId sẽ dùng chung một kết quả
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ProfileBatchClient {
+    private static final int MAX_BATCH_SIZE = 200;
+
+    ProfileClient profileClient;
+    Map<String, CompletableFuture<UserProfileResponse>> pending = new ConcurrentHashMap<>();
+    AtomicBoolean flushScheduled = new AtomicBoolean();
+    ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "profile-batch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @NonFinal
+    @Value("${app.profile-batch.window-ms:5}")
+    long windowMs;
+
+    @NonFinal
+    @Value("${app.profile-batch.timeout-ms:3000}")
+    long timeoutMs;
+
+    // Trả về null nếu userId không có profile
+    public UserProfileResponse getProfile(String userId) {
+        CompletableFuture<UserProfileResponse> future = pending.computeIfAbsent(userId, id -> new CompletableFuture<>());
+        if (pending.size() >= MAX_BATCH_SIZE) {
+            scheduler.execute(this::flush);
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Profile lookup failed for " + userId, e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Profile lookup timed out for " + userId, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Profile lookup interrupted for " + userId, e);
+        }
+    }
+
+    // Gọi batch theo chunk cho các userId đã gom trong một lượt flush
+    private Map<String, UserProfileResponse> getProfiles(Collection<String> userIds) {
+        List<String> ids = userIds.stream().filter(Objects::nonNull).distinct().toList();
+        Map<String, UserProfileResponse> result = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += MAX_BATCH_SIZE) {
+            List<String> chunk = ids.subList(from, Math.min(from + MAX_BATCH_SIZE, ids.size()));
+            Map<String, UserProfileResponse> profiles = profileClient.getProfiles(chunk).getResult();
+            if (profiles != null) {
+                result.putAll(profiles);
+            }
+        }
+        return result;
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+
+        Map<String, CompletableFuture<UserProfileResponse>> batch = new HashMap<>();
+        for (String userId : List.copyOf(pending.keySet())) {
+            if (batch.size() >= MAX_BATCH_SIZE) {
+                // Phần còn lại để lượt flush sau
+                if (flushScheduled.compareAndSet(false, true)) {
+                    scheduler.execute(this::flush);
+                }
+                break;
+            }
+            CompletableFuture<UserProfileResponse> future = pending.remove(userId);
+            if (future != null) {
+                batch.put(userId, future);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            Map<String, UserProfileResponse> profiles = getProfiles(batch.keySet());
+            batch.forEach((userId, future) -> future.complete(profiles.get(userId)));
+        } catch (Exception e) {
+            log.warn("Batch profile lookup failed for {} users: {}", batch.size(), e.getMessage());
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -5,7 +5,7 @@ import com.example.storyservice.entity.Story;
 import com.example.storyservice.exception.AppException;
 import com.example.storyservice.exception.ErrorCode;
 import com.example.storyservice.repository.StoryRepository;
-import com.example.storyservice.repository.httpclient.ProfileClient;
+import com.example.storyservice.repository.httpclient.ProfileBatchClient;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -29,7 +29,7 @@ import java.util.List;
 @Slf4j
 public class StoryService {
     StoryRepository storyRepository;
-    ProfileClient profileClient;
+    ProfileBatchClient profileBatchClient;
 
     @Caching(evict = {
             @CacheEvict(value = "stories", allEntries = true),
@@ -39,14 +39,14 @@ public class StoryService {
     public Story createStory(CreateStoryRequest createStoryRequest) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         var userId = authentication.getName();
-        var profile = profileClient.getProfile(userId);
+        var profile = profileBatchClient.getProfile(userId);
         Story story = Story.builder()
                 .content(createStoryRequest.getContent())
                 .mediaUrl(createStoryRequest.getMediaUrl())
                 .timestamp(createStoryRequest.getTimestamp())
                 .authorId(userId)
-                .firstName(profile.getResult().getFirstName())
-                .lastName(profile.getResult().getLastName())
+                .firstName(profile.getFirstName())
+                .lastName(profile.getLastName())
                 .thumbnailUrl(createStoryRequest.getThumbnailUrl())
                 .createdAt(Instant.now())
                 .updatedAt(Instant.now())
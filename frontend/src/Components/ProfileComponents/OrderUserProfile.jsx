@@ -7,8 +7,7 @@ import { getToken } from "../../service/LocalStorageService";
 import {
   fetchUserInfo,
   fetchUserProfileById,
-  getFollowers,
-  getFollowings,
+  getFollowStats,
   followUser,
   unfollowUser,
 } from "../../api/userApi";
@@ -20,8 +19,8 @@ const ProfileUserDetails = () => {
   const navigate = useNavigate();
   const [posts, setPosts] = useState([]);
   const [user, setUser] = useState(null);
-  const [followers, setFollowers] = useState([]);
-  const [followings, setFollowings] = useState([]);
+  const [followerCount, setFollowerCount] = useState(0);
+  const [followingCount, setFollowingCount] = useState(0);
   const [isFollowing, setIsFollowing] = useState(false);
   const [isLoading, setIsLoading] = useState(true);
   const [isActionLoading, setIsActionLoading] = useState(false);
@@ -43,17 +42,10 @@ const ProfileUserDetails = () => {
         setUser(profileData);
 
         if (profileData?.id) {
-          const [followerData, followingData] = await Promise.all([
-            getFollowers(profileData.id, token),
-            getFollowings(profileData.id, token),
-          ]);
-          setFollowers(followerData || []);
-          setFollowings(followingData || []);
-
-          const isUserFollowing = followerData?.some(
-            (follower) => follower.id === loggedInUser.id
-          );
-          setIsFollowing(isUserFollowing);
+          const stats = await getFollowStats(profileData.id, token);
+          setFollowerCount(stats?.followerCount || 0);
+          setFollowingCount(stats?.followingCount || 0);
+          setIsFollowing(!!stats?.followedByMe);
         }
 
         const postData = await getPostsByUserId(profileData.userId, token);
@@ -77,12 +69,10 @@ const ProfileUserDetails = () => {
       setIsActionLoading(true);
       if (isFollowing) {
         await unfollowUser(user.id, token);
-        setFollowers((prev) =>
-          prev.filter((follower) => follower.id !== currentUser.id)
-        );
+        setFollowerCount((prev) => Math.max(prev - 1, 0));
       } else {
         await followUser(user.id, token);
-        setFollowers((prev) => [...prev, currentUser]);
+        setFollowerCount((prev) => prev + 1);
       }
       setIsFollowing(!isFollowing);
     } catch (error) {
@@ -235,13 +225,13 @@ const ProfileUserDetails = () => {
                 </div>
                 <div className="text-center cursor-pointer group">
                   <div className="text-2xl font-bold text-gray-800 group-hover:text-sky-600 transition-colors">
-                    {followers.length || 0}
+                    {followerCount}
                   </div>
                   <div className="text-sm text-gray-500 font-medium">Followers</div>
                 </div>
                 <div className="text-center cursor-pointer group">
                   <div className="text-2xl font-bold text-gray-800 group-hover:text-sky-600 transition-colors">
-                    {followings.length || 0}
+                    {followingCount}
                   </div>
                   <div className="text-sm text-gray-500 font-medium">Following</div>
                 </div>
@@ -5,7 +5,7 @@ import { LuCircleDashed } from "react-icons/lu";
 import { MdEdit } from "react-icons/md";
 import { useNavigate } from "react-router-dom";
 import { getToken } from "../../service/LocalStorageService";
-import { fetchUserInfo, getFollowers, getFollowings } from "../../api/userApi";
+import { fetchUserInfo, getFollowStats } from "../../api/userApi";
 import { fetchUserPosts } from "../../api/postApi";
 import SockJS from "sockjs-client";
 import { Client } from "@stomp/stompjs";
@@ -14,8 +14,8 @@ const ProfileUserDetails = () => {
   const navigate = useNavigate();
   const [posts, setPosts] = useState([]);
   const [user, setUser] = useState(null);
-  const [followers, setFollowers] = useState([]);
-  const [followings, setFollowings] = useState([]);
+  const [followerCount, setFollowerCount] = useState(0);
+  const [followingCount, setFollowingCount] = useState(0);
   const [isLoading, setIsLoading] = useState(true);
   const token = getToken();
   const { notifications: realtimeNotifications } = useNotification();
@@ -30,12 +30,9 @@ const lastFollowNotiIdRef = useRef(null);
         setUser(result);
 
         if (result?.id) {
-          const [followerData, followingData] = await Promise.all([
-            getFollowers(result.id, token),
-            getFollowings(result.id, token),
-          ]);
-          setFollowers(followerData || []);
-          setFollowings(followingData || []);
+          const stats = await getFollowStats(result.id, token);
+          setFollowerCount(stats?.followerCount || 0);
+          setFollowingCount(stats?.followingCount || 0);
         }
       } catch (error) {
         console.log("Error fetching user:", error);
@@ -74,8 +71,8 @@ const lastFollowNotiIdRef = useRef(null);
   lastFollowNotiIdRef.current = latest.id;
 
   // ✅ reload followers count
-  getFollowers(user.id, token).then((data) => {
-    setFollowers(data || []);
+  getFollowStats(user.id, token).then((stats) => {
+    setFollowerCount(stats?.followerCount || 0);
   });
 }, [realtimeNotifications, user?.id, token]);
 
@@ -193,13 +190,13 @@ const lastFollowNotiIdRef = useRef(null);
               </div>
               <div className="text-center cursor-pointer group">
                 <div className="text-2xl font-bold text-gray-800 group-hover:text-sky-600 transition-colors">
-                  {followers.length || 0}
+                  {followerCount}
                 </div>
                 <div className="text-sm text-gray-500 font-medium">Followers</div>
               </div>
               <div className="text-center cursor-pointer group">
                 <div className="text-2xl font-bold text-gray-800 group-hover:text-sky-600 transition-colors">
-                  {followings.length || 0}
+                  {followingCount}
                 </div>
                 <div className="text-sm text-gray-500 font-medium">Following</div>
               </div>
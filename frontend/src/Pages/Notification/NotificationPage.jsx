@@ -80,6 +80,7 @@ const NotificationsPage = () => {
       postId: latest.postId,
       storyId: latest.storyId ?? latest.story_id,
       senderId: latest.senderId,
+      actorCount: latest.actorCount,
       seen: latest.seen ?? false,
     };
 
@@ -87,8 +88,9 @@ const NotificationsPage = () => {
       const exists = prev.some((n) => n.id === newNotification.id);
 
       if (exists) {
-        console.log("⚠️ Notification already in list:", newNotification.id);
-        return prev;
+        // Notification gộp (like/reaction) được cập nhật lại → đưa lên đầu danh sách
+        console.log("🔁 Updating aggregated notification:", newNotification.id);
+        return [newNotification, ...prev.filter((n) => n.id !== newNotification.id)];
       }
 
       console.log("✅ Adding notification to page list");
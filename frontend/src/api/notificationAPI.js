@@ -9,12 +9,33 @@ const config = (token) => ({
   },
 });
 export const getAllNotifications = async (token,userId) => {
+    const page = await getNotificationPage(token, userId);
+    return page.items;
+}
+export const getNotificationPage = async (token, userId, cursor, limit = 20) => {
     try{
-        const res = await axios.get(`${NOTIFICATION_API}/${userId}`, config(token))
-        return res.data.result || [];
+        const res = await axios.get(`${NOTIFICATION_API}/${userId}`, {
+            ...config(token),
+            params: { cursor, limit },
+        });
+        const result = res.data.result || {};
+        return {
+            items: result.items || [],
+            nextCursor: result.nextCursor || null,
+            hasNext: !!result.hasNext,
+        };
     }  catch (error) {
         console.error("Error fetching notifications:", error);
-        return [];
+        return { items: [], nextCursor: null, hasNext: false };
+    }
+}
+export const getUnreadNotificationCount = async (token, userId) => {
+    try {
+        const res = await axios.get(`${NOTIFICATION_API}/${userId}/unread-count`, config(token));
+        return res.data.result || 0;
+    } catch (error) {
+        console.error("Error fetching unread notification count:", error);
+        return 0;
     }
 }
 export const markNotificationAsRead = async (token, notificationId) => {
@@ -158,9 +158,12 @@ export const fetchUserProfileById = async (profileId, token) => {
   }
 };
 
-export const getFollowers = async (profileId, token) => {
+export const getFollowers = async (profileId, token, page = 1, size = 20) => {
   try {
-    const response = await axios.get(`${BASE_URL}/users/follower/${profileId}`, config(token));
+    const response = await axios.get(`${BASE_URL}/users/follower/${profileId}`, {
+      ...config(token),
+      params: { page, size },
+    });
     return response.data?.result;
   } catch (error) {
     console.error("Error fetching followers:", error);
@@ -168,12 +171,25 @@ export const getFollowers = async (profileId, token) => {
   }
 };
 
-export const getFollowings = async (profileId, token) => {
+export const getFollowings = async (profileId, token, page = 1, size = 20) => {
   try {
-    const response = await axios.get(`${BASE_URL}/users/following/${profileId}`, config(token));
+    const response = await axios.get(`${BASE_URL}/users/following/${profileId}`, {
+      ...config(token),
+      params: { page, size },
+    });
     return response.data?.result;
   } catch (error) {
     console.error("Error fetching followings:", error);
     return [];
   }
 };
+
+export const getFollowStats = async (profileId, token) => {
+  try {
+    const response = await axios.get(`${BASE_URL}/users/follow-stats/${profileId}`, config(token));
+    return response.data?.result;
+  } catch (error) {
+    console.error("Error fetching follow stats:", error);
+    return { followerCount: 0, followingCount: 0, followedByMe: false };
+  }
+};
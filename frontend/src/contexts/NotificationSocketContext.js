@@ -48,7 +48,7 @@ console.log("🔌 Connecting to:", wsUrl);
         console.log("✅ STOMP Connected to notification service");
         setIsConnected(true);
 
-        const subscriptionPath = `/user/${userId}/queue/notifications`;
+        const subscriptionPath = `/user/queue/notifications`;
         console.log("📡 Subscribing to:", subscriptionPath);
 
         client.subscribe(subscriptionPath, (message) => {